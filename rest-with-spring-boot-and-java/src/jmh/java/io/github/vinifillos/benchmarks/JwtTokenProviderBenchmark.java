@@ -0,0 +1,74 @@
+package io.github.vinifillos.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.github.vinifillos.model.dto.security.TokenDto;
+import io.github.vinifillos.security.jwt.JwtTokenProvider;
+import io.github.vinifillos.security.jwt.VerifiedTokenCache;
+import io.github.vinifillos.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token creation and verification in {@link JwtTokenProvider}, plus the uncached
+ * verification the filter used to run twice per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "53cr37";
+
+    private JwtTokenProvider tokenProvider;
+    private String accessToken;
+    private byte[] encodedSecret;
+
+    @Setup
+    public void setUp() {
+        var request = new MockHttpServletRequest("POST", "/auth/signin");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        var meterRegistry = new SimpleMeterRegistry();
+        var userService = new UserService(null, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30), meterRegistry);
+        tokenProvider = new JwtTokenProvider(userService, new VerifiedTokenCache(10000, meterRegistry));
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        accessToken = tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).getAccessToken();
+        encodedSecret = Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public TokenDto createAccessToken() {
+        return tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER"));
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return tokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyUncached() {
+        return JWT.require(Algorithm.HMAC256(encodedSecret)).build().verify(accessToken);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.vinifillos.benchmarks;
+
+import io.github.vinifillos.controllers.PersonController;
+import io.github.vinifillos.util.LinkTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Cost of the per-item self link built by the paged service methods, via an invocation proxy
+ * per item and via a {@link LinkTemplate} resolved once per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkBuildingBenchmark {
+
+    private long id;
+    private LinkTemplate selfLinks;
+
+    @Setup
+    public void setUp() {
+        var request = new MockHttpServletRequest("GET", "/api/person/v1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        selfLinks = LinkTemplate.forController(PersonController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Link linkToMethodOn() {
+        return linkTo(methodOn(PersonController.class).findById(++id, null)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link linkTemplate() {
+        return selfLinks.selfRel(++id);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.vinifillos.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one sign-in hash verification per encoder setting, used to pick
+ * {@code security.password.pbkdf2-iterations} and {@code security.password.bcrypt-strength}.
+ * Each {@code encoder} value is {@code <algorithm>-<cost>}, so every run measures exactly one setting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    @Param({"pbkdf2-100000", "pbkdf2-185000", "pbkdf2-310000", "pbkdf2-600000", "bcrypt-10", "bcrypt-12"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] spec = encoder.split("-");
+        int cost = Integer.parseInt(spec[1]);
+        passwordEncoder = switch (spec[0]) {
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 8, cost,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case "bcrypt" -> new BCryptPasswordEncoder(cost);
+            default -> throw new IllegalArgumentException("Unknown encoder: " + encoder);
+        };
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
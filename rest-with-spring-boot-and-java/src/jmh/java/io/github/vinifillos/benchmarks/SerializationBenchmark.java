@@ -0,0 +1,86 @@
+package io.github.vinifillos.benchmarks;
+
+import io.github.vinifillos.model.dto.BookDto;
+import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.serealization.converter.YamlJackson2HttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one {@link PersonDto} and one {@link BookDto} through the same message converters the
+ * application negotiates between for JSON, XML and YAML.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"json", "xml", "yaml"})
+    public String format;
+
+    private AbstractJackson2HttpMessageConverter converter;
+    private MediaType mediaType;
+    private PersonDto person;
+    private BookDto book;
+
+    @Setup
+    public void setUp() {
+        switch (format) {
+            case "xml" -> {
+                converter = new MappingJackson2XmlHttpMessageConverter();
+                mediaType = MediaType.APPLICATION_XML;
+            }
+            case "yaml" -> {
+                converter = new YamlJackson2HttpMessageConverter();
+                mediaType = MediaType.parseMediaType("application/x-yaml");
+            }
+            default -> {
+                converter = new MappingJackson2HttpMessageConverter();
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+        }
+
+        person = new PersonDto();
+        person.setKey(1L);
+        person.setFirstName("Vinicius");
+        person.setLastName("Fillos");
+        person.setAddress("Street Alfredo Kamisnki");
+        person.setGender("Male");
+        person.setEnabled(true);
+        person.add(Link.of("http://localhost/api/person/v1/1").withSelfRel());
+
+        book = new BookDto();
+        book.setKey(1L);
+        book.setAuthor("Michael C. Feathers");
+        book.setTitle("Working effectively with legacy code");
+        book.setPrice(49.0D);
+        book.setLaunchDate(new Date());
+        book.add(Link.of("http://localhost/api/book/v1/1").withSelfRel());
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writePerson() throws IOException {
+        var output = new MockHttpOutputMessage();
+        converter.write(person, PersonDto.class, mediaType, output);
+        return output;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writeBook() throws IOException {
+        var output = new MockHttpOutputMessage();
+        converter.write(book, BookDto.class, mediaType, output);
+        return output;
+    }
+}
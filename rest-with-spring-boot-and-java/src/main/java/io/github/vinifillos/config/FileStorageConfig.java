@@ -3,6 +3,9 @@ package io.github.vinifillos.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Configuration
 @ConfigurationProperties(prefix = "file")
@@ -10,4 +13,34 @@ import org.springframework.context.annotation.Configuration;
 public class FileStorageConfig {
 
     private String uploadDir;
+
+    /**
+     * {@code name} stores each upload under its file name; {@code content} stores each distinct
+     * content once and maps names to it.
+     */
+    private StorageMode storageMode = StorageMode.NAME;
+
+    /**
+     * Largest body accepted by the streaming upload endpoint, which is not bound by the
+     * multipart limits.
+     */
+    private DataSize maxUploadSize = DataSize.ofGigabytes(5);
+
+    /**
+     * Files of one multi-file upload stored at the same time, and the limit across all requests.
+     */
+    private int uploadConcurrencyPerRequest = 4;
+    private int uploadConcurrencyGlobal = 16;
+
+    /**
+     * Chunked upload sessions: chunk size used when the client does not pick one, the smallest and
+     * largest chunk sizes accepted, and how long an unfinished session is kept. The minimum bounds
+     * the chunk count, and with it the size of the persisted session state.
+     */
+    private DataSize uploadChunkSize = DataSize.ofMegabytes(8);
+    private DataSize uploadMinChunkSize = DataSize.ofKilobytes(64);
+    private DataSize uploadMaxChunkSize = DataSize.ofMegabytes(64);
+    private Duration uploadSessionTtl = Duration.ofHours(24);
+
+    public enum StorageMode { NAME, CONTENT }
 }
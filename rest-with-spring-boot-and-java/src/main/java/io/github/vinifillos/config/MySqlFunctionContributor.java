@@ -0,0 +1,21 @@
+package io.github.vinifillos.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers MySQL full-text search for JPQL as {@code match_against(column, :query)}, which renders
+ * {@code MATCH(column) AGAINST(:query IN BOOLEAN MODE)} and returns the relevance score.
+ * Loaded by Hibernate through {@code META-INF/services}.
+ */
+public class MySqlFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "match_against",
+                "match (?1) against (?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.vinifillos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.password")
+@Data
+public class PasswordHashingConfig {
+
+    /**
+     * Algorithm used for new hashes: {@code pbkdf2} or {@code bcrypt}. Stored hashes using any
+     * other supported algorithm or cost are re-hashed on the next successful login.
+     */
+    private String algorithm = "pbkdf2";
+    private int pbkdf2Iterations = 185000;
+    private int bcryptStrength = 10;
+
+    /**
+     * Threads dedicated to sign-in hash verification and how many sign-ins may wait for one
+     * before the endpoint answers 503.
+     */
+    private int signinPoolSize = Runtime.getRuntime().availableProcessors();
+    private int signinQueueCapacity = 100;
+}
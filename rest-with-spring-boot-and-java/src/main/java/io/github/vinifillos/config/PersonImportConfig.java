@@ -0,0 +1,27 @@
+package io.github.vinifillos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "person.import")
+@Data
+public class PersonImportConfig {
+
+    /**
+     * Rows committed per transaction. Only one batch of rows is held in memory at a time.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Row errors listed in the import result; any further errors are only counted.
+     */
+    private int maxReportedErrors = 100;
+
+    /**
+     * Longest CSV record or NDJSON line, in characters. Longer rows are skipped and reported as
+     * row errors instead of being buffered.
+     */
+    private int maxLineLength = 65536;
+}
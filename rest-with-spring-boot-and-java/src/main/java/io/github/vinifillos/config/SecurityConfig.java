@@ -11,6 +11,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
@@ -25,20 +26,36 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final int LEGACY_PBKDF2_ITERATIONS = 185000;
+
     private final JwtTokenProvider tokenProvider;
+    private final PasswordHashingConfig passwordHashingConfig;
 
     @Bean
     PasswordEncoder passwordEncoder() {
         Map<String, PasswordEncoder> encoders = new HashMap<>();
 
-        Pbkdf2PasswordEncoder pbkdf2Encoder = new Pbkdf2PasswordEncoder("", 8, 185000,
-                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        // Hashes without an {id} prefix predate the configurable cost and always use 185000 iterations.
+        Pbkdf2PasswordEncoder pbkdf2Encoder = pbkdf2Encoder(LEGACY_PBKDF2_ITERATIONS);
         encoders.put("pbkdf2", pbkdf2Encoder);
-        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
+        encoders.put("bcrypt", new BCryptPasswordEncoder(passwordHashingConfig.getBcryptStrength()));
+
+        // PBKDF2 hashes do not record their cost, so each iteration count gets its own id.
+        int iterations = passwordHashingConfig.getPbkdf2Iterations();
+        String pbkdf2Id = iterations == LEGACY_PBKDF2_ITERATIONS ? "pbkdf2" : "pbkdf2-" + iterations;
+        encoders.putIfAbsent(pbkdf2Id, pbkdf2Encoder(iterations));
+
+        String idForEncode = "bcrypt".equalsIgnoreCase(passwordHashingConfig.getAlgorithm()) ? "bcrypt" : pbkdf2Id;
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(idForEncode, encoders);
         passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder);
         return passwordEncoder;
     }
 
+    private static Pbkdf2PasswordEncoder pbkdf2Encoder(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 8, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
     @Bean
     AuthenticationManager authenticationManagerBean(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -64,6 +81,7 @@ public class SecurityConfig {
                                         "/v3/api-docs/**"
                                 ).permitAll()
                                 .requestMatchers("/api/**").authenticated()
+                                .requestMatchers("/actuator/**").authenticated()
                                 .requestMatchers("/users").denyAll()
                 )
                 .cors(cors -> {})
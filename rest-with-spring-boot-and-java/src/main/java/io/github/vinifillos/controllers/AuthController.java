@@ -9,6 +9,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Tag(name = "Authentication Endpoint")
 @RequiredArgsConstructor
 @RestController
@@ -20,11 +22,10 @@ public class AuthController {
     @SuppressWarnings("rawtypes")
     @Operation(summary = "Authenticates a user and returns a token")
     @PostMapping(value = "/signin")
-    public ResponseEntity signin(@RequestBody AccountCredentialsDto data) {
-        if (checkIfParamsIsNotNull(data)) return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
-        var token = authService.signin(data);
-        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
-        return token;
+    public CompletableFuture<ResponseEntity> signin(@RequestBody AccountCredentialsDto data) {
+        if (checkIfParamsIsNotNull(data)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!"));
+        return authService.signin(data)
+                .thenApply(token -> token == null ? ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!") : token);
     }
 
     @SuppressWarnings("rawtypes")
@@ -1,22 +1,38 @@
 package io.github.vinifillos.controllers;
 
 import io.github.vinifillos.model.dto.BookDto;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.model.dto.CursorPageDto;
+import io.github.vinifillos.model.dto.SuggestionDto;
+import io.github.vinifillos.services.ExportService;
 import io.github.vinifillos.services.BookService;
+import io.github.vinifillos.services.ResponseEncoder;
+import io.github.vinifillos.util.ETags;
+import io.github.vinifillos.util.ExportFormat;
 import io.github.vinifillos.util.MediaType;
+import io.github.vinifillos.util.PagedModels;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/book/v1")
@@ -25,10 +41,12 @@ import org.springframework.web.bind.annotation.*;
 public class BookController {
 
     private final BookService bookService;
+    private final ExportService exportService;
 
     @Operation(summary = "Finds a book", description = "Finds a book", tags = {"Books"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200",
                     content = @Content(schema = @Schema(implementation = BookDto.class))),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -36,8 +54,16 @@ public class BookController {
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
-    public BookDto findById(@PathVariable(value = "id") Long id) {
-        return bookService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable(value = "id") Long id, WebRequest request) {
+        var mediaType = ResponseEncoder.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (mediaType == null) return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        // Answer a matching If-None-Match from the cached DTO's version, before anything is serialized.
+        if (request.checkNotModified(ETags.of(bookService.findById(id), mediaType))) return null;
+        var response = bookService.findByIdEncoded(id, mediaType);
+        return ResponseEntity.ok()
+                .contentType(response.contentType())
+                .eTag(response.eTag())
+                .body(response.body());
     }
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
@@ -52,12 +78,70 @@ public class BookController {
     public ResponseEntity<PagedModel<EntityModel<BookDto>>> findAll(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "3") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "count", defaultValue = "true") Boolean count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "title"));
-        return ResponseEntity.ok(bookService.findAll(pageable));
+        Pageable pageable = PageRequest.of(page, PagedModels.clampSize(size), Sort.by(sortDirection, "title"));
+        return withETag(bookService.findAll(pageable, count), accept);
+    }
+
+    @GetMapping(value = "/keyset", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Finds all books by cursor", description = "Finds all books ordered by title, one page after the given cursor. Follow the 'next' link for the following page", tags = {"Books"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = BookDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<CursorPageDto<BookDto>> findAllByKeyset(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "3") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "count", defaultValue = "false") Boolean count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        var result = bookService.findAllByKeyset(cursor, size, direction, count);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofPage(result.getContent(), ResponseEncoder.negotiate(accept), result.getTotalElements(), result.getLinks()))
+                .body(result);
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.TEXT_CSV})
+    @Operation(summary = "Exports all books", description = "Streams every book in a single response as JSON, NDJSON, XML, YML or CSV, chosen by the Accept header", tags = {"Books"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Acceptable", responseCode = "406", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public WebAsyncTask<Void> export(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response
+    ) throws HttpMediaTypeNotAcceptableException {
+        var format = ExportFormat.negotiate(accept);
+        if (format == null) throw new HttpMediaTypeNotAcceptableException(ExportFormat.mediaTypes());
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books." + format.getExtension() + "\"");
+        return exportService.respond(bookService.export(format), response);
+    }
+
+    @GetMapping(value = "/autocomplete", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Suggests books", description = "Suggests books whose title or author starts with the given prefix, without querying the database", tags = {"Books"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = SuggestionDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<List<SuggestionDto>> autocomplete(
+            @RequestParam(value = "q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit
+    ) {
+        return ResponseEntity.ok(bookService.autocomplete(prefix, limit));
     }
 
     @Operation(summary = "Creates a book", description = "Adds a new book by passing in a JSON, XML or YML representation of the book", tags = {"Books"}, responses = {
@@ -78,11 +162,41 @@ public class BookController {
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @PutMapping(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
-    public BookDto update(@RequestBody BookDto book) {
-        return bookService.update(book);
+    public BookDto update(@RequestBody BookDto book,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bookService.update(book, ifMatch);
+    }
+
+    @Operation(summary = "Creates books in bulk", description = "Adds many books by passing in a JSON, XML or YML list. Each item is reported individually", tags = {"Books"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public List<BulkItemResultDto> bulkCreate(@RequestBody List<BookDto> books) {
+        return bookService.bulkCreate(books);
+    }
+
+    @Operation(summary = "Updates books in bulk", description = "Updates many books by passing in a JSON, XML or YML list. Each item is reported individually", tags = {"Books"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public List<BulkItemResultDto> bulkUpdate(@RequestBody List<BookDto> books) {
+        return bookService.bulkUpdate(books);
     }
 
     @Operation(summary = "Deletes a book", description = "Deletes a book by passing an Id", tags = {"Books"}, responses = {
@@ -97,4 +211,15 @@ public class BookController {
         bookService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Tags a page with the versions of its items, its totals and its links, so an unchanged page
+     * is answered with {@code 304 Not Modified} before it is serialized.
+     */
+    private static ResponseEntity<PagedModel<EntityModel<BookDto>>> withETag(PagedModel<EntityModel<BookDto>> page, String accept) {
+        var items = page.getContent().stream().map(EntityModel::getContent).toList();
+        return ResponseEntity.ok()
+                .eTag(ETags.ofPage(items, ResponseEncoder.negotiate(accept), page.getMetadata(), page.getLinks()))
+                .body(page);
+    }
 }
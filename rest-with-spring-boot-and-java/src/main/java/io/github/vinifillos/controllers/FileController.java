@@ -1,21 +1,26 @@
 package io.github.vinifillos.controllers;
 
 import io.github.vinifillos.model.dto.UploadResponseDto;
+import io.github.vinifillos.model.dto.UploadSessionDto;
+import io.github.vinifillos.model.dto.UploadSessionRequestDto;
+import io.github.vinifillos.services.FileDownloadService;
 import io.github.vinifillos.services.FileStorageService;
+import io.github.vinifillos.services.UploadSessionService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 @Tag(name = "File Endpoint")
 @RestController
@@ -25,49 +30,104 @@ import java.util.List;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final FileDownloadService fileDownloadService;
+    private final UploadSessionService uploadSessionService;
 
     @PostMapping("/uploadFile")
     public UploadResponseDto uploadFile(@RequestParam("file") MultipartFile file) {
         log.info("Storing file to disk!");
 
-        var fileName = fileStorageService.storeFile(file);
-        String fileDownloadUri = ServletUriComponentsBuilder
-                .fromCurrentContextPath()
-                .path("/api/file/v1/downloadFile/")
-                .path(fileName)
-                .toUriString();
+        var stored = fileStorageService.storeFile(file);
+        return new UploadResponseDto(stored.fileName(), downloadUri(stored.fileName()), file.getContentType(), stored.size(), stored.sha256(), null);
+    }
+
+    /**
+     * Stores the raw request body under {@code fileName} without multipart parsing, so the bytes
+     * are written to disk once. Send {@code X-Content-SHA256} to have the upload verified.
+     */
+    @PutMapping(value = "/upload/{fileName:.+}", consumes = MediaType.ALL_VALUE)
+    public UploadResponseDto upload(@PathVariable String fileName,
+                                    @RequestHeader(value = "X-Content-SHA256", required = false) String sha256,
+                                    HttpServletRequest request) throws IOException {
+        log.info("Streaming file to disk!");
 
-        return new UploadResponseDto(fileName, fileDownloadUri, file.getContentType(), file.getSize());
+        var stored = fileStorageService.store(fileName, request.getInputStream(), sha256);
+        return new UploadResponseDto(stored.fileName(), downloadUri(stored.fileName()), request.getContentType(), stored.size(), stored.sha256(), null);
     }
 
     @PostMapping("/uploadMultipleFiles")
     public List<UploadResponseDto> uploadMultipleFiles(@RequestParam("files") MultipartFile[] files) {
         log.info("Storing files to disk!");
 
-        return Arrays.stream(files)
-                .map(this::uploadFile)
-                .toList();
+        var uploads = fileStorageService.storeFiles(files);
+        var responses = new ArrayList<UploadResponseDto>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            var file = files[i];
+            try {
+                var stored = uploads.get(i).join();
+                responses.add(new UploadResponseDto(stored.fileName(), downloadUri(stored.fileName()), file.getContentType(), stored.size(), stored.sha256(), null));
+            } catch (CompletionException e) {
+                log.error("Could not store file {}!", file.getOriginalFilename(), e.getCause());
+                responses.add(new UploadResponseDto(file.getOriginalFilename(), null, file.getContentType(), file.getSize(), null, e.getCause().getMessage()));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Starts a resumable upload. Chunks are then sent with {@code PUT /uploads/{id}/chunks/{index}}
+     * in any order and concurrently, and the file is published by {@code POST /uploads/{id}/complete}.
+     */
+    @PostMapping("/uploads")
+    public UploadSessionDto createUploadSession(@RequestBody UploadSessionRequestDto request) {
+        log.info("Creating an upload session!");
+
+        return uploadSessionService.create(request);
+    }
+
+    @GetMapping("/uploads/{id}")
+    public UploadSessionDto findUploadSession(@PathVariable String id) {
+        log.info("Finding one upload session!");
+
+        return uploadSessionService.find(id);
+    }
+
+    @PutMapping(value = "/uploads/{id}/chunks/{index}", consumes = MediaType.ALL_VALUE)
+    public UploadSessionDto uploadChunk(@PathVariable String id, @PathVariable int index,
+                                        HttpServletRequest request) throws IOException {
+        log.info("Storing one upload chunk to disk!");
+
+        return uploadSessionService.writeChunk(id, index, request.getInputStream());
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    public UploadResponseDto completeUploadSession(@PathVariable String id) {
+        log.info("Completing an upload session!");
+
+        var stored = uploadSessionService.complete(id);
+        return new UploadResponseDto(stored.fileName(), downloadUri(stored.fileName()), null, stored.size(), stored.sha256(), null);
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<?> abortUploadSession(@PathVariable String id) {
+        log.info("Aborting an upload session!");
+
+        uploadSessionService.abort(id);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/downloadFile/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName, HttpServletRequest request) {
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("Reading a file on disk!");
 
-        Resource resource = fileStorageService.loadFileAsResource(fileName);
-        var contentType = "";
-
-        try {
-            contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-        } catch (Exception ex) {
-            log.error("Could not determine file type!");
-        }
-        if (contentType.isBlank()){
-            contentType = "application/octet-stream";
-        }
+        fileDownloadService.send(fileStorageService.loadFilePath(fileName), fileName, request, response);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    private static String downloadUri(String fileName) {
+        return ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .path(fileName)
+                .toUriString();
     }
 }
@@ -1,22 +1,43 @@
 package io.github.vinifillos.controllers;
 
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.model.dto.CursorPageDto;
+import io.github.vinifillos.model.dto.DisableResultDto;
+import io.github.vinifillos.model.dto.ImportResultDto;
 import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.model.dto.SuggestionDto;
+import io.github.vinifillos.services.ExportService;
+import io.github.vinifillos.services.PersonImportService;
 import io.github.vinifillos.services.PersonService;
+import io.github.vinifillos.services.ResponseEncoder;
+import io.github.vinifillos.util.ETags;
+import io.github.vinifillos.util.ExportFormat;
 import io.github.vinifillos.util.MediaType;
+import io.github.vinifillos.util.PagedModels;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/person/v1")
@@ -25,11 +46,14 @@ import org.springframework.web.bind.annotation.*;
 public class PersonController {
 
     private final PersonService personService;
+    private final PersonImportService personImportService;
+    private final ExportService exportService;
 
     @CrossOrigin(origins = "http://localhost:8080")
     @Operation(summary = "Finds a person", description = "Finds a person", tags = {"People"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200",
                     content = @Content(schema = @Schema(implementation = PersonDto.class))),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -37,8 +61,16 @@ public class PersonController {
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
-    public PersonDto findById(@PathVariable(value = "id") Long id) {
-        return personService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable(value = "id") Long id, WebRequest request) {
+        var mediaType = ResponseEncoder.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (mediaType == null) return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        // Answer a matching If-None-Match from the cached DTO's version, before anything is serialized.
+        if (request.checkNotModified(ETags.of(personService.findById(id), mediaType))) return null;
+        var response = personService.findByIdEncoded(id, mediaType);
+        return ResponseEntity.ok()
+                .contentType(response.contentType())
+                .eTag(response.eTag())
+                .body(response.body());
     }
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
@@ -53,12 +85,70 @@ public class PersonController {
     public ResponseEntity<PagedModel<EntityModel<PersonDto>>> findAll(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "count", defaultValue = "true") Boolean count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
-        return ResponseEntity.ok(personService.findAll(pageable));
+        Pageable pageable = PageRequest.of(page, PagedModels.clampSize(size), Sort.by(sortDirection, "firstName"));
+        return withETag(personService.findAll(pageable, count), accept);
+    }
+
+    @GetMapping(value = "/keyset", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Finds all people by cursor", description = "Finds all people ordered by first name, one page after the given cursor. Follow the 'next' link for the following page", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PersonDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<CursorPageDto<PersonDto>> findAllByKeyset(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "count", defaultValue = "false") Boolean count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        var result = personService.findAllByKeyset(cursor, size, direction, count);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofPage(result.getContent(), ResponseEncoder.negotiate(accept), result.getTotalElements(), result.getLinks()))
+                .body(result);
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.TEXT_CSV})
+    @Operation(summary = "Exports all people", description = "Streams every person in a single response as JSON, NDJSON, XML, YML or CSV, chosen by the Accept header", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Acceptable", responseCode = "406", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public WebAsyncTask<Void> export(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response
+    ) throws HttpMediaTypeNotAcceptableException {
+        var format = ExportFormat.negotiate(accept);
+        if (format == null) throw new HttpMediaTypeNotAcceptableException(ExportFormat.mediaTypes());
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people." + format.getExtension() + "\"");
+        return exportService.respond(personService.export(format), response);
+    }
+
+    @GetMapping(value = "/autocomplete", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Suggests people", description = "Suggests people whose first or last name starts with the given prefix, without querying the database", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = SuggestionDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<List<SuggestionDto>> autocomplete(
+            @RequestParam(value = "q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit
+    ) {
+        return ResponseEntity.ok(personService.autocomplete(prefix, limit));
     }
 
     @GetMapping(value = "/findPeopleByName/{firstName}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
@@ -74,12 +164,14 @@ public class PersonController {
             @PathVariable(value = "firstName") String firstName,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "count", defaultValue = "true") Boolean count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
-        return ResponseEntity.ok(personService.findPeopleByName(firstName, pageable));
+        Pageable pageable = PageRequest.of(page, PagedModels.clampSize(size), Sort.by(sortDirection, "firstName"));
+        return withETag(personService.findPeopleByName(firstName, pageable, count), accept);
     }
 
     @CrossOrigin(origins = {"http://localhost:8080", "http://vinifillos.com.br"})
@@ -101,11 +193,53 @@ public class PersonController {
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @PutMapping(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
-    public PersonDto update(@RequestBody PersonDto person) {
-        return personService.update(person);
+    public PersonDto update(@RequestBody PersonDto person,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return personService.update(person, ifMatch);
+    }
+
+    @Operation(summary = "Creates people in bulk", description = "Adds many people by passing in a JSON, XML or YML list. Each item is reported individually", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public List<BulkItemResultDto> bulkCreate(@RequestBody List<PersonDto> people) {
+        return personService.bulkCreate(people);
+    }
+
+    @Operation(summary = "Updates people in bulk", description = "Updates many people by passing in a JSON, XML or YML list. Each item is reported individually", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = { @Content( mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public List<BulkItemResultDto> bulkUpdate(@RequestBody List<PersonDto> people) {
+        return personService.bulkUpdate(people);
+    }
+
+    @Operation(summary = "Imports people from a file", description = "Imports people from a CSV (with a header row) or NDJSON request body of any size, chosen by the Content-Type, committing in batches. Invalid rows are skipped and reported by line", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = ImportResultDto.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.TEXT_CSV, MediaType.APPLICATION_NDJSON}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public ImportResultDto importPeople(HttpServletRequest request) throws IOException {
+        return personImportService.importPeople(request.getContentType(), request.getInputStream());
     }
 
     @CrossOrigin(origins = "http://localhost:8080")
@@ -123,6 +257,19 @@ public class PersonController {
         return personService.disablePerson(id);
     }
 
+    @Operation(summary = "Disables people in bulk", description = "Disables every listed person with a single statement", tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = DisableResultDto.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @PatchMapping(value = "/disable", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    public DisableResultDto disablePeople(@RequestBody List<Long> ids) {
+        return personService.disablePeople(ids);
+    }
+
     @Operation(summary = "Deletes a person", description = "Deletes a person by passing an Id", tags = {"People"}, responses = {
             @ApiResponse(description = "No content", responseCode = "204", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
@@ -135,4 +282,15 @@ public class PersonController {
         personService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Tags a page with the versions of its items, its totals and its links, so an unchanged page
+     * is answered with {@code 304 Not Modified} before it is serialized.
+     */
+    private static ResponseEntity<PagedModel<EntityModel<PersonDto>>> withETag(PagedModel<EntityModel<PersonDto>> page, String accept) {
+        var items = page.getContent().stream().map(EntityModel::getContent).toList();
+        return ResponseEntity.ok()
+                .eTag(ETags.ofPage(items, ResponseEncoder.negotiate(accept), page.getMetadata(), page.getLinks()))
+                .body(page);
+    }
 }
@@ -1,10 +1,18 @@
 package io.github.vinifillos.exceptions.handler;
 
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import io.github.vinifillos.exceptions.ChecksumMismatchException;
 import io.github.vinifillos.exceptions.ExceptionResponse;
+import io.github.vinifillos.exceptions.InvalidCursorException;
+import io.github.vinifillos.exceptions.InvalidImportFileException;
 import io.github.vinifillos.exceptions.InvalidJwtAuthenticationException;
+import io.github.vinifillos.exceptions.InvalidUploadChunkException;
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.exceptions.PreconditionFailedException;
 import io.github.vinifillos.exceptions.RequiredObjectIsNullException;
 import io.github.vinifillos.exceptions.ResourceNotFoundException;
+import io.github.vinifillos.exceptions.ServiceUnavailableException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -33,7 +41,8 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler(RequiredObjectIsNullException.class)
+    @ExceptionHandler({RequiredObjectIsNullException.class, InvalidCursorException.class, InvalidImportFileException.class,
+            ChecksumMismatchException.class, InvalidUploadChunkException.class})
     public final ResponseEntity<ExceptionResponse> handleBadRequestException(Exception ex, WebRequest request) {
         ExceptionResponse exceptionResponse = new ExceptionResponse(
                 new Date(), ex.getMessage(), request.getDescription(false));
@@ -46,4 +55,32 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
                 new Date(), ex.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(exceptionResponse, HttpStatus.FORBIDDEN);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<ExceptionResponse> handleServiceUnavailableException(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public final ResponseEntity<ExceptionResponse> handlePayloadTooLargeException(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public final ResponseEntity<ExceptionResponse> handleOptimisticLockingFailureException(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(), "The resource was modified concurrently, please reload it and try again!", request.getDescription(false));
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public final ResponseEntity<ExceptionResponse> handlePreconditionFailedException(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PRECONDITION_FAILED);
+    }
 }
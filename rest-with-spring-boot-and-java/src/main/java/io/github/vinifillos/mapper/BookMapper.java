@@ -8,37 +8,40 @@ import java.util.List;
 
 public class BookMapper {
 
-    private static org.modelmapper.ModelMapper mapper = new org.modelmapper.ModelMapper();
-
     public static Book fromDtoToBook(BookDto dto) {
-        Book book = mapper.map(dto, Book.class);
+        Book book = new Book();
         book.setId(dto.getKey());
+        book.setAuthor(dto.getAuthor());
+        book.setLaunchDate(dto.getLaunchDate());
+        book.setPrice(dto.getPrice());
+        book.setTitle(dto.getTitle());
         return book;
     }
 
     public static BookDto fromBookToDto(Book book) {
-        BookDto dto = mapper.map(book, BookDto.class);
+        BookDto dto = new BookDto();
         dto.setKey(book.getId());
+        dto.setAuthor(book.getAuthor());
+        dto.setLaunchDate(book.getLaunchDate());
+        dto.setPrice(book.getPrice());
+        dto.setTitle(book.getTitle());
+        dto.setVersion(book.getVersion());
         return dto;
     }
 
     public static List<Book> parseListDtoToBook(List<BookDto> dtosList) {
-        List<Book> bookList = new ArrayList<>();
+        List<Book> bookList = new ArrayList<>(dtosList.size());
         for (BookDto dto : dtosList) {
-            var entity = mapper.map(dto, Book.class);
-            entity.setId(dto.getKey());
-            bookList.add(entity);
+            bookList.add(fromDtoToBook(dto));
         }
         return bookList;
     }
 
     public static List<BookDto> parseListBookToDto(List<Book> bookList) {
-        List<BookDto> dtosList = new ArrayList<>();
+        List<BookDto> dtosList = new ArrayList<>(bookList.size());
         for (Book book : bookList) {
-            var entity = mapper.map(book, BookDto.class);
-            entity.setKey(book.getId());
-            dtosList.add(entity);
+            dtosList.add(fromBookToDto(book));
         }
         return dtosList;
     }
-}
\ No newline at end of file
+}
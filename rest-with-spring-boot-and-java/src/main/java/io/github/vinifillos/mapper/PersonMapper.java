@@ -8,37 +8,42 @@ import java.util.List;
 
 public class PersonMapper {
 
-    private static org.modelmapper.ModelMapper mapper = new org.modelmapper.ModelMapper();
-
     public static Person fromDtoToPerson(PersonDto dto) {
-        Person person = mapper.map(dto, Person.class);
+        Person person = new Person();
         person.setId(dto.getKey());
+        person.setFirstName(dto.getFirstName());
+        person.setLastName(dto.getLastName());
+        person.setAddress(dto.getAddress());
+        person.setGender(dto.getGender());
+        person.setEnabled(dto.getEnabled());
         return person;
     }
 
     public static PersonDto fromPersonToDto(Person person) {
-        PersonDto dto = mapper.map(person, PersonDto.class);
+        PersonDto dto = new PersonDto();
         dto.setKey(person.getId());
+        dto.setFirstName(person.getFirstName());
+        dto.setLastName(person.getLastName());
+        dto.setAddress(person.getAddress());
+        dto.setGender(person.getGender());
+        dto.setEnabled(person.getEnabled());
+        dto.setVersion(person.getVersion());
         return dto;
     }
 
     public static List<Person> parseListDtoToPerson(List<PersonDto> dtosList) {
-        List<Person> personList = new ArrayList<>();
+        List<Person> personList = new ArrayList<>(dtosList.size());
         for (PersonDto dto : dtosList) {
-            var entity = mapper.map(dto, Person.class);
-            entity.setId(dto.getKey());
-            personList.add(entity);
+            personList.add(fromDtoToPerson(dto));
         }
         return personList;
     }
 
     public static List<PersonDto> parseListPersonToDto(List<Person> personList) {
-        List<PersonDto> dtosList = new ArrayList<>();
+        List<PersonDto> dtosList = new ArrayList<>(personList.size());
         for (Person person : personList) {
-            var entity = mapper.map(person, PersonDto.class);
-            entity.setKey(person.getId());
-            dtosList.add(entity);
+            dtosList.add(fromPersonToDto(person));
         }
         return dtosList;
     }
-}
\ No newline at end of file
+}
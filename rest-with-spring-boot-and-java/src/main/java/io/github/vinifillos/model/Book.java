@@ -19,7 +19,8 @@ public class Book implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     @Column(name = "author", nullable = false, length = 100)
     private String author;
@@ -29,6 +30,9 @@ public class Book implements Serializable {
     private Double price;
     @Column(name = "title", nullable = false, length = 200)
     private String title;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @Override
     public boolean equals(Object o) {
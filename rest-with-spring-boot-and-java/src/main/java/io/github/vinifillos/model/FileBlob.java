@@ -0,0 +1,52 @@
+package io.github.vinifillos.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One distinct file content in the content-addressed store and how many names point to it.
+ */
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "file_blob")
+public class FileBlob implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+    @Column(name = "size", nullable = false)
+    private Long size;
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FileBlob fileBlob = (FileBlob) o;
+        return Objects.equals(sha256, fileBlob.sha256) && Objects.equals(size, fileBlob.size) && Objects.equals(refCount, fileBlob.refCount);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(sha256);
+        result = 31 * result + Objects.hashCode(size);
+        result = 31 * result + Objects.hashCode(refCount);
+        return result;
+    }
+}
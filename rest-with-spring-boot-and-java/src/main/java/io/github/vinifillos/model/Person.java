@@ -20,7 +20,8 @@ public class Person implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "person_seq", allocationSize = 50)
     private Long id;
     @Column(name = "first_name", nullable = false, length = 20)
     private String firstName;
@@ -32,6 +33,9 @@ public class Person implements Serializable {
     private String gender;
     @Column(name = "enabled", nullable = false)
     private Boolean enabled;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,54 @@
+package io.github.vinifillos.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Name under which a file was uploaded and the content it currently points to.
+ */
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stored_file")
+public class StoredFileEntry implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name")
+    private String name;
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StoredFileEntry that = (StoredFileEntry) o;
+        return Objects.equals(name, that.name) && Objects.equals(sha256, that.sha256) && Objects.equals(size, that.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(name);
+        result = 31 * result + Objects.hashCode(sha256);
+        result = 31 * result + Objects.hashCode(size);
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.vinifillos.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Getter;
@@ -15,7 +16,7 @@ import java.util.Objects;
 @JsonPropertyOrder({"id", "author", "launchDate", "price", "title"})
 @Getter @Setter
 @NoArgsConstructor
-public class BookDto extends RepresentationModel<BookDto> implements Serializable {
+public class BookDto extends RepresentationModel<BookDto> implements Versioned, Serializable {
 
     @Serial
     private static final long serialVersionUID = 1L;
@@ -26,6 +27,11 @@ public class BookDto extends RepresentationModel<BookDto> implements Serializabl
     private Date launchDate;
     private Double price;
     private String title;
+    /**
+     * Exposed through the {@code ETag} header, not the body.
+     */
+    @JsonIgnore
+    private Long version;
 
     @Override
     public boolean equals(Object o) {
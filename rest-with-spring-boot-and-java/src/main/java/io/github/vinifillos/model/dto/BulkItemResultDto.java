@@ -0,0 +1,29 @@
+package io.github.vinifillos.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Outcome of one item of a bulk request, identified by its position in the request body.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Integer index;
+    private Long key;
+    private Status status;
+    private String error;
+
+    public enum Status { CREATED, UPDATED, FAILED }
+}
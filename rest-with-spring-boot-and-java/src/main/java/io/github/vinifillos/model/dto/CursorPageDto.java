@@ -0,0 +1,49 @@
+package io.github.vinifillos.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One keyset page. {@code totalElements} is only filled in when the client asked for the count.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"content", "totalElements"})
+public class CursorPageDto<T> extends RepresentationModel<CursorPageDto<T>> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        CursorPageDto<?> that = (CursorPageDto<?>) o;
+        return Objects.equals(content, that.content) && Objects.equals(totalElements, that.totalElements);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + Objects.hashCode(content);
+        result = 31 * result + Objects.hashCode(totalElements);
+        return result;
+    }
+}
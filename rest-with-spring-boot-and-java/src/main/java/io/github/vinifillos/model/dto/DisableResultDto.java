@@ -0,0 +1,24 @@
+package io.github.vinifillos.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Outcome of a bulk disable: how many distinct ids were sent and how many people were disabled by
+ * it. The rest were already disabled or do not exist.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DisableResultDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Integer requested;
+    private Integer disabled;
+}
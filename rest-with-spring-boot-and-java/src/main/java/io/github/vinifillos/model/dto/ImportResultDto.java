@@ -0,0 +1,35 @@
+package io.github.vinifillos.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResultDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private long line;
+        private String error;
+    }
+}
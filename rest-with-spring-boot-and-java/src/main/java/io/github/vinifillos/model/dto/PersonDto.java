@@ -1,5 +1,6 @@
 package io.github.vinifillos.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.persistence.Column;
@@ -15,7 +16,7 @@ import java.util.Objects;
 @Setter @Getter
 @NoArgsConstructor
 @JsonPropertyOrder({"id", "firstName", "lastName", "address", "gender"})
-public class PersonDto extends RepresentationModel<PersonDto> implements Serializable {
+public class PersonDto extends RepresentationModel<PersonDto> implements Versioned, Serializable {
 
     @Serial
     private static final long serialVersionUID = 1L;
@@ -27,6 +28,11 @@ public class PersonDto extends RepresentationModel<PersonDto> implements Seriali
     private String address;
     private String gender;
     private Boolean enabled;
+    /**
+     * Exposed through the {@code ETag} header, not the body.
+     */
+    @JsonIgnore
+    private Long version;
 
     @Override
     public boolean equals(Object o) {
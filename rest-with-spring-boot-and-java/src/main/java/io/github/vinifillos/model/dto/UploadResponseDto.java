@@ -1,5 +1,6 @@
 package io.github.vinifillos.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,5 +20,8 @@ public class UploadResponseDto implements Serializable {
     private String fileDownloadUri;
     private String fileType;
     private Long fileSize;
+    private String sha256;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 
 }
@@ -0,0 +1,29 @@
+package io.github.vinifillos.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * State of a chunked upload. Chunk {@code n} covers bytes {@code n * chunkSize} up to the next
+ * chunk or the end of the file; {@code missingChunks} are the ones still to send.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String fileName;
+    private Long size;
+    private Long chunkSize;
+    private Integer chunkCount;
+    private List<Integer> missingChunks;
+}
@@ -0,0 +1,22 @@
+package io.github.vinifillos.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionRequestDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String fileName;
+    private Long size;
+    private Long chunkSize;
+    private String sha256;
+}
@@ -0,0 +1,12 @@
+package io.github.vinifillos.model.dto;
+
+/**
+ * A resource whose representation changes only when its version does, so its id and version
+ * are enough to build an {@code ETag}.
+ */
+public interface Versioned {
+
+    Long getKey();
+
+    Long getVersion();
+}
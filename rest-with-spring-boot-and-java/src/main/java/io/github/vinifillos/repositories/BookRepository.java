@@ -1,7 +1,62 @@
 package io.github.vinifillos.repositories;
 
 import io.github.vinifillos.model.Book;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+    /**
+     * Updates the book only if it is still at {@code version}, checking and writing in one
+     * statement. Returns the number of rows updated, 0 when the id or the version did not match.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.author = :author, b.launchDate = :launchDate, b.price = :price, " +
+            "b.title = :title, b.version = b.version + 1 WHERE b.id = :id AND b.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") Long version,
+                        @Param("author") String author, @Param("launchDate") Date launchDate,
+                        @Param("price") Double price, @Param("title") String title);
+
+    @Query("SELECT b FROM Book b")
+    Slice<Book> findAllAsSlice(Pageable pageable);
+
+    @Query("SELECT b FROM Book b ORDER BY b.title ASC, b.id ASC")
+    List<Book> findFirstKeysetPageAsc(Pageable limit);
+
+    @Query("SELECT b FROM Book b ORDER BY b.title DESC, b.id DESC")
+    List<Book> findFirstKeysetPageDesc(Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.title > :title OR (b.title = :title AND b.id > :id) " +
+            "ORDER BY b.title ASC, b.id ASC")
+    List<Book> findKeysetPageAsc(@Param("title") String title, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.title < :title OR (b.title = :title AND b.id < :id) " +
+            "ORDER BY b.title DESC, b.id DESC")
+    List<Book> findKeysetPageDesc(@Param("title") String title, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.id > :id ORDER BY b.id")
+    List<Book> findNextById(@Param("id") Long id, Pageable limit);
+
+    /**
+     * All rows in id order, streamed by the MySQL driver one row at a time. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
 }
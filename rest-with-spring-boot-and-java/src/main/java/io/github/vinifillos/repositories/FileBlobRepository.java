@@ -0,0 +1,38 @@
+package io.github.vinifillos.repositories;
+
+import io.github.vinifillos.model.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    /**
+     * Adds a reference to the content, creating its row on first use. Locks the row until commit.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO file_blob (sha256, size, ref_count) VALUES (:sha256, :size, 1) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    void acquire(@Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying
+    @Query(value = "UPDATE file_blob SET ref_count = ref_count - 1 WHERE sha256 = :sha256", nativeQuery = true)
+    void release(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = "DELETE FROM file_blob WHERE sha256 = :sha256 AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+
+    /**
+     * Locks the content's row, or the gap it would be inserted into, so a concurrent
+     * {@link #acquire} waits until commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.sha256 =:sha256")
+    Optional<FileBlob> findForUpdate(@Param("sha256") String sha256);
+}
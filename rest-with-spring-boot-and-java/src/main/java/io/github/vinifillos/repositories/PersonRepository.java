@@ -1,18 +1,93 @@
 package io.github.vinifillos.repositories;
 
 import io.github.vinifillos.model.Person;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface PersonRepository extends JpaRepository<Person, Long> {
+    /**
+     * Disables the person only if it is still at {@code version}, so the caller knows the
+     * resulting row without reading it back. Returns the number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE Person p SET p.enabled = false, p.version = p.version + 1 WHERE p.id = :id AND p.version = :version")
+    int disableIfVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * Disables every listed person that is still enabled in one statement. Returns how many were.
+     */
+    @Modifying
+    @Query("UPDATE Person p SET p.enabled = false, p.version = p.version + 1 WHERE p.id IN :ids AND p.enabled = true")
+    int disablePeople(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Updates the person only if it is still at {@code version}, checking and writing in one
+     * statement. Returns the number of rows updated, 0 when the id or the version did not match.
+     */
+    @Transactional
     @Modifying
-    @Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
-    void disablePerson(@Param("id") Long id);
+    @Query("UPDATE Person p SET p.firstName = :firstName, p.lastName = :lastName, p.address = :address, " +
+            "p.gender = :gender, p.version = p.version + 1 WHERE p.id = :id AND p.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") Long version,
+                        @Param("firstName") String firstName, @Param("lastName") String lastName,
+                        @Param("address") String address, @Param("gender") String gender);
 
     @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%', :firstName, '%'))")
     Page<Person> findPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query("SELECT p FROM Person p")
+    Slice<Person> findAllAsSlice(Pageable pageable);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%', :firstName, '%'))")
+    Slice<Person> findPeopleByNameAsSlice(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%', :firstName, '%'))")
+    long countPeopleByName(@Param("firstName") String firstName);
+
+    @Query("SELECT p FROM Person p WHERE match_against(p.firstName, :query) > 0")
+    Slice<Person> searchPeopleByName(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Person p WHERE match_against(p.firstName, :query) > 0")
+    long countSearchPeopleByName(@Param("query") String query);
+
+    @Query("SELECT p FROM Person p ORDER BY p.firstName ASC, p.id ASC")
+    List<Person> findFirstKeysetPageAsc(Pageable limit);
+
+    @Query("SELECT p FROM Person p ORDER BY p.firstName DESC, p.id DESC")
+    List<Person> findFirstKeysetPageDesc(Pageable limit);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName > :firstName OR (p.firstName = :firstName AND p.id > :id) " +
+            "ORDER BY p.firstName ASC, p.id ASC")
+    List<Person> findKeysetPageAsc(@Param("firstName") String firstName, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName < :firstName OR (p.firstName = :firstName AND p.id < :id) " +
+            "ORDER BY p.firstName DESC, p.id DESC")
+    List<Person> findKeysetPageDesc(@Param("firstName") String firstName, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT p FROM Person p WHERE p.id > :id ORDER BY p.id")
+    List<Person> findNextById(@Param("id") Long id, Pageable limit);
+
+    /**
+     * All rows in id order, streamed by the MySQL driver one row at a time. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAll();
 }
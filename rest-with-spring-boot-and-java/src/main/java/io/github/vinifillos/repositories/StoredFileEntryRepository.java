@@ -0,0 +1,17 @@
+package io.github.vinifillos.repositories;
+
+import io.github.vinifillos.model.StoredFileEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StoredFileEntryRepository extends JpaRepository<StoredFileEntry, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM StoredFileEntry f WHERE f.name =:name")
+    Optional<StoredFileEntry> findForUpdate(@Param("name") String name);
+}
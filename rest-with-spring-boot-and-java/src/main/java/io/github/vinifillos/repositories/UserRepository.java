@@ -2,10 +2,19 @@ package io.github.vinifillos.repositories;
 
 import io.github.vinifillos.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.userName =:userName")
     User findByUsername(@Param("userName") String userName);
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.userName =:userName " +
+            "AND u.enabled = true AND u.accountNonLocked = true AND u.accountNonExpired = true AND u.credentialsNonExpired = true")
+    boolean isAccountActive(@Param("userName") String userName);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.userName =:userName")
+    void updatePassword(@Param("userName") String userName, @Param("password") String password);
 }
@@ -6,14 +6,15 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import io.github.vinifillos.exceptions.InvalidJwtAuthenticationException;
 import io.github.vinifillos.model.dto.security.TokenDto;
+import io.github.vinifillos.services.UserService;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -31,14 +32,20 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000;
 
-    private final UserDetailsService userDetailsService;
+    @Value("${security.jwt.token.stateless:false}")
+    private boolean stateless = false;
+
+    private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     Algorithm algorithm = null;
+    JWTVerifier verifier = null;
 
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
     }
 
     public TokenDto createAccessToken(String username, List<String> roles) {
@@ -51,7 +58,6 @@ public class JwtTokenProvider {
 
     public  TokenDto refreshToken(String refreshToken) {
         if (refreshToken.contains("Bearer ")) refreshToken = refreshToken.substring("Bearer ".length());
-        JWTVerifier verifier = JWT.require(algorithm).build();
         DecodedJWT decodedJWT = verifier.verify(refreshToken);
         String username = decodedJWT.getSubject();
         List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -84,14 +90,24 @@ public class JwtTokenProvider {
     public Authentication getAuthentication(String token) {
         DecodedJWT decodedJWT = decodedToken(token);
         assert decodedJWT != null;
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(decodedJWT.getSubject());
+        if (stateless) return getAuthenticationFromClaims(decodedJWT);
+        UserDetails userDetails = this.userService.loadUserByUsername(decodedJWT.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+
+    private Authentication getAuthenticationFromClaims(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+        if (username == null || !userService.isAccountActive(username)) return null;
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+        UserDetails userDetails = User.withUsername(username)
+                .password("")
+                .authorities(roles == null ? new String[0] : roles.toArray(String[]::new))
+                .build();
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
     private DecodedJWT decodedToken(String token) {
-        var alg = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(alg).build();
-        return verifier.verify(token);
+        return verifiedTokenCache.get(token, verifier::verify);
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -1,9 +1,12 @@
 package io.github.vinifillos.services;
 
+import io.github.vinifillos.config.PasswordHashingConfig;
+import io.github.vinifillos.exceptions.ServiceUnavailableException;
 import io.github.vinifillos.model.dto.security.AccountCredentialsDto;
 import io.github.vinifillos.model.dto.security.TokenDto;
-import io.github.vinifillos.repositories.UserRepository;
 import io.github.vinifillos.security.jwt.JwtTokenProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,6 +14,13 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -18,17 +28,57 @@ public class AuthService {
 
     public final AuthenticationManager authenticationManager;
     public final JwtTokenProvider tokenProvider;
-    public final UserRepository userRepository;
+    public final UserService userService;
+    public final PasswordHashingConfig passwordHashingConfig;
+
+    /**
+     * Password hashing is deliberately expensive, so sign-ins run on their own bounded pool
+     * instead of the servlet threads serving the rest of the API. The work is CPU bound, so these stay
+     * platform threads even when {@code spring.threads.virtual.enabled} is on.
+     */
+    private ThreadPoolExecutor signinExecutor;
+
+    @PostConstruct
+    protected void init() {
+        int poolSize = passwordHashingConfig.getSigninPoolSize();
+        signinExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordHashingConfig.getSigninQueueCapacity()),
+                Thread.ofPlatform().name("signin-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        signinExecutor.shutdown();
+    }
+
+    @SuppressWarnings("rawtypes")
+    public CompletableFuture<ResponseEntity> signin(AccountCredentialsDto data) {
+        // The issuer claim is derived from the current request, so hand its attributes to the worker.
+        var requestAttributes = RequestContextHolder.currentRequestAttributes();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return authenticate(data);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }, signinExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many sign-in attempts in progress, please try again later!", e);
+        }
+    }
 
     @SuppressWarnings("rawtypes")
-    public ResponseEntity signin(AccountCredentialsDto data) {
+    private ResponseEntity authenticate(AccountCredentialsDto data) {
         try {
             var username = data.getUsername();
             var password = data.getPassword();
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(username, password));
 
-            var user = userRepository.findByUsername(username);
+            var user = userService.findByUsername(username);
 
             var tokenResponse = new TokenDto();
             if (user != null) {
@@ -45,7 +95,7 @@ public class AuthService {
 
     @SuppressWarnings("rawtypes")
     public ResponseEntity refreshToken(String username, String refreshToken) {
-        var user = userRepository.findByUsername(username);
+        var user = userService.findByUsername(username);
 
         TokenDto tokenResponse;
         if (user != null) {
@@ -55,4 +105,4 @@ public class AuthService {
         }
         return ResponseEntity.ok(tokenResponse);
     }
-}
\ No newline at end of file
+}
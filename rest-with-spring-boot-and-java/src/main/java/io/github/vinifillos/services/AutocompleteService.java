@@ -0,0 +1,82 @@
+package io.github.vinifillos.services;
+
+import io.github.vinifillos.model.Book;
+import io.github.vinifillos.model.Person;
+import io.github.vinifillos.model.dto.SuggestionDto;
+import io.github.vinifillos.repositories.BookRepository;
+import io.github.vinifillos.repositories.PersonRepository;
+import io.github.vinifillos.util.PrefixIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Type-ahead over people (first and last name) and books (title and author) served entirely from
+ * memory. The indexes are loaded once the application is ready and kept current by the write
+ * paths of {@link PersonService} and {@link BookService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MAX_LIMIT = 50;
+
+    private final PersonRepository personRepository;
+    private final BookRepository bookRepository;
+    private final Logger logger = Logger.getLogger(AutocompleteService.class.getName());
+    private final PrefixIndex people = new PrefixIndex();
+    private final PrefixIndex books = new PrefixIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading autocomplete indexes!");
+        Pageable limit = PageRequest.of(0, LOAD_BATCH_SIZE);
+        List<Person> personBatch;
+        long lastId = 0;
+        do {
+            personBatch = personRepository.findNextById(lastId, limit);
+            personBatch.forEach(this::indexPerson);
+            if (!personBatch.isEmpty()) lastId = personBatch.getLast().getId();
+        } while (personBatch.size() == LOAD_BATCH_SIZE);
+        List<Book> bookBatch;
+        lastId = 0;
+        do {
+            bookBatch = bookRepository.findNextById(lastId, limit);
+            bookBatch.forEach(this::indexBook);
+            if (!bookBatch.isEmpty()) lastId = bookBatch.getLast().getId();
+        } while (bookBatch.size() == LOAD_BATCH_SIZE);
+        logger.info("Indexed " + people.size() + " people and " + books.size() + " books for autocomplete!");
+    }
+
+    public List<SuggestionDto> suggestPeople(String prefix, Integer limit) {
+        return people.search(prefix, Math.min(limit, MAX_LIMIT));
+    }
+
+    public List<SuggestionDto> suggestBooks(String prefix, Integer limit) {
+        return books.search(prefix, Math.min(limit, MAX_LIMIT));
+    }
+
+    public void indexPerson(Person person) {
+        people.put(person.getId(), person.getFirstName() + " " + person.getLastName(),
+                person.getFirstName(), person.getLastName());
+    }
+
+    public void removePerson(Long id) {
+        people.remove(id);
+    }
+
+    public void indexBook(Book book) {
+        books.put(book.getId(), book.getTitle(), book.getTitle(), book.getAuthor());
+    }
+
+    public void removeBook(Long id) {
+        books.remove(id);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.vinifillos.services;
+
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Writes large inputs in chunks of {@code hibernate.jdbc.batch_size}, each chunk in its own
+ * transaction, so Hibernate sends one JDBC batch per chunk and the persistence context is
+ * discarded after every commit. A chunk that fails is retried one item at a time, so only the
+ * offending items are reported as failed.
+ */
+@Component
+public class BatchWriter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxItems;
+    private final Logger logger = Logger.getLogger(BatchWriter.class.getName());
+
+    public BatchWriter(PlatformTransactionManager transactionManager,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                       @Value("${bulk.max-items:1000}") int maxItems) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Entry point of the bulk endpoints, which reject requests of more than {@code bulk.max-items}
+     * items before writing any of them.
+     *
+     * @param chunkWriter persists one chunk and returns the saved entities in input order
+     * @param idOf        id of a saved entity
+     * @param afterCommit called with the entities of each committed chunk
+     */
+    public <T, E> List<BulkItemResultDto> write(List<T> items,
+                                                Function<List<T>, List<E>> chunkWriter,
+                                                Function<E, Long> idOf,
+                                                BulkItemResultDto.Status status,
+                                                Consumer<List<E>> afterCommit) {
+        checkLimit(items.size());
+        return write(items, batchSize, chunkWriter, idOf, status, afterCommit);
+    }
+
+    /**
+     * Rejects a bulk request of more than {@code bulk.max-items} items, for bulk endpoints that
+     * do not write through {@link #write}.
+     */
+    public void checkLimit(int items) {
+        if (items > maxItems) {
+            throw new PayloadTooLargeException("Bulk request of " + items + " items exceeds the maximum of " + maxItems + " items!");
+        }
+    }
+
+    /**
+     * Same as {@link #write(List, Function, Function, BulkItemResultDto.Status, Consumer)} with
+     * {@code transactionSize} items per transaction. Hibernate still sends them in JDBC batches of
+     * {@link #getBatchSize()}.
+     */
+    public <T, E> List<BulkItemResultDto> write(List<T> items,
+                                                int transactionSize,
+                                                Function<List<T>, List<E>> chunkWriter,
+                                                Function<E, Long> idOf,
+                                                BulkItemResultDto.Status status,
+                                                Consumer<List<E>> afterCommit) {
+        var results = new ArrayList<BulkItemResultDto>(items.size());
+        for (int offset = 0; offset < items.size(); offset += transactionSize) {
+            var chunk = items.subList(offset, Math.min(offset + transactionSize, items.size()));
+            List<E> saved;
+            try {
+                saved = transactionTemplate.execute(tx -> chunkWriter.apply(chunk));
+            } catch (RuntimeException e) {
+                logger.warning("Batch starting at item " + offset + " failed, retrying its items one by one!");
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(writeOne(offset + i, chunk.get(i), chunkWriter, idOf, status, afterCommit));
+                }
+                continue;
+            }
+            afterCommit.accept(saved);
+            for (int i = 0; i < saved.size(); i++) {
+                results.add(new BulkItemResultDto(offset + i, idOf.apply(saved.get(i)), status, null));
+            }
+        }
+        return results;
+    }
+
+    private <T, E> BulkItemResultDto writeOne(int index, T item,
+                                              Function<List<T>, List<E>> chunkWriter,
+                                              Function<E, Long> idOf,
+                                              BulkItemResultDto.Status status,
+                                              Consumer<List<E>> afterCommit) {
+        List<E> saved;
+        try {
+            saved = transactionTemplate.execute(tx -> chunkWriter.apply(List.of(item)));
+        } catch (RuntimeException e) {
+            var cause = NestedExceptionUtils.getMostSpecificCause(e);
+            return new BulkItemResultDto(index, null, BulkItemResultDto.Status.FAILED, cause.getMessage());
+        }
+        afterCommit.accept(saved);
+        return new BulkItemResultDto(index, idOf.apply(saved.getFirst()), status, null);
+    }
+}
@@ -1,21 +1,40 @@
 package io.github.vinifillos.services;
 
 import io.github.vinifillos.controllers.BookController;
+import io.github.vinifillos.exceptions.PreconditionFailedException;
 import io.github.vinifillos.exceptions.RequiredObjectIsNullException;
 import io.github.vinifillos.exceptions.ResourceNotFoundException;
 import io.github.vinifillos.mapper.BookMapper;
+import io.github.vinifillos.model.Book;
 import io.github.vinifillos.model.dto.BookDto;
-import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.model.dto.CursorPageDto;
+import io.github.vinifillos.model.dto.SuggestionDto;
 import io.github.vinifillos.repositories.BookRepository;
+import io.github.vinifillos.util.ETags;
+import io.github.vinifillos.util.ExportFormat;
+import io.github.vinifillos.util.ExportWriter;
+import io.github.vinifillos.util.KeysetCursor;
+import io.github.vinifillos.util.LinkTemplate;
+import io.github.vinifillos.util.PagedModels;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -25,27 +44,97 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequiredArgsConstructor
 public class BookService {
 
+    private static final String RESOURCE = "book";
+    private static final List<ExportWriter.Column<Book>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("id", Book::getId),
+            new ExportWriter.Column<>("author", Book::getAuthor),
+            new ExportWriter.Column<>("launchDate", Book::getLaunchDate),
+            new ExportWriter.Column<>("price", Book::getPrice),
+            new ExportWriter.Column<>("title", Book::getTitle));
+
     private final BookRepository bookRepository;
+    private final CountCache countCache;
+    private final DtoCache dtoCache;
+    private final ResponseEncoder responseEncoder;
+    private final AutocompleteService autocompleteService;
+    private final BatchWriter batchWriter;
+    private final ExportService exportService;
     private final Logger logger = Logger.getLogger(BookService.class.getName());
     final PagedResourcesAssembler<BookDto> assembler;
 
-    public PagedModel<EntityModel<BookDto>> findAll(Pageable pageable) {
+    public PagedModel<EntityModel<BookDto>> findAll(Pageable pageable, Boolean count) {
         logger.info("Finding all books!");
 
-        var bookPage = bookRepository.findAll(pageable);
-        var bookDtosPage = bookPage.map(BookMapper::fromBookToDto);
-        bookDtosPage.forEach(p -> p.add(linkTo(methodOn(BookController.class).findById(p.getKey())).withSelfRel()));
-        Link link = linkTo(methodOn(BookController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
-        return assembler.toModel(bookDtosPage, link);
+        var bookSlice = bookRepository.findAllAsSlice(pageable);
+        var bookDtosSlice = bookSlice.map(BookMapper::fromBookToDto);
+        var selfLinks = LinkTemplate.forController(BookController.class);
+        bookDtosSlice.forEach(p -> p.add(selfLinks.selfRel(p.getKey())));
+        Link link = linkTo(methodOn(BookController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", count, null)).withSelfRel();
+        if (!Boolean.TRUE.equals(count)) return PagedModels.withoutTotals(bookDtosSlice, link);
+        long total = countCache.get(RESOURCE, "all", bookRepository::count);
+        return assembler.toModel(new PageImpl<>(bookDtosSlice.getContent(), pageable, total), link);
+    }
+
+    public CursorPageDto<BookDto> findAllByKeyset(String cursor, Integer size, String direction, Boolean count) {
+        logger.info("Finding all books by keyset!");
+
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        size = PagedModels.clampSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Book> books;
+        if (cursor == null || cursor.isBlank()) {
+            books = descending ? bookRepository.findFirstKeysetPageDesc(limit) : bookRepository.findFirstKeysetPageAsc(limit);
+        } else {
+            var position = KeysetCursor.decode(cursor);
+            books = descending
+                    ? bookRepository.findKeysetPageDesc(position.key(), position.id(), limit)
+                    : bookRepository.findKeysetPageAsc(position.key(), position.id(), limit);
+        }
+        boolean hasNext = books.size() >= limit.getPageSize();
+        if (hasNext) books = books.subList(0, limit.getPageSize() - 1);
+
+        var dtos = BookMapper.parseListBookToDto(books);
+        var selfLinks = LinkTemplate.forController(BookController.class);
+        dtos.forEach(p -> p.add(selfLinks.selfRel(p.getKey())));
+
+        var page = new CursorPageDto<>(dtos, Boolean.TRUE.equals(count) ? bookRepository.count() : null);
+        page.add(linkTo(methodOn(BookController.class).findAllByKeyset(cursor, size, direction, count, null)).withSelfRel());
+        if (hasNext) {
+            var last = books.getLast();
+            var next = new KeysetCursor(last.getTitle(), last.getId()).encode();
+            page.add(linkTo(methodOn(BookController.class).findAllByKeyset(next, size, direction, count, null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    public StreamingResponseBody export(ExportFormat format) {
+        logger.info("Exporting all books!");
+        return exportService.export(format, EXPORT_COLUMNS, "books", "book", bookRepository::streamAll);
+    }
+
+    public List<SuggestionDto> autocomplete(String prefix, Integer limit) {
+        return autocompleteService.suggestBooks(prefix, limit);
     }
 
     public BookDto findById(Long id) {
+        return dtoCache.get(RESOURCE, id, () -> loadById(id));
+    }
+
+    /**
+     * The book serialized as {@code mediaType}, from the DTO cache when possible, so repeated
+     * reads skip both the query and the serialization.
+     */
+    public DtoCache.Encoded findByIdEncoded(Long id, MediaType mediaType) {
+        return dtoCache.getEncoded(RESOURCE, id, mediaType, () -> loadById(id), dto -> responseEncoder.encode(dto, mediaType, ETags.of(dto, mediaType)));
+    }
+
+    private BookDto loadById(Long id) {
         logger.info("Finding one book!");
 
         var entity = bookRepository.findById(id)
                 .orElseThrow(ResourceNotFoundException::new);
         var dto = BookMapper.fromBookToDto(entity);
-        dto.add(linkTo(methodOn(BookController.class).findById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(BookController.class).findById(id, null)).withSelfRel());
         return dto;
     }
 
@@ -54,32 +143,129 @@ public class BookService {
         if (book == null) throw new RequiredObjectIsNullException();
         logger.info("Creating one book!");
         var entity = BookMapper.fromDtoToBook(book);
-        var dto = BookMapper.fromBookToDto(bookRepository.save(entity));
-        dto.add(linkTo(methodOn(BookController.class).findById(dto.getKey())).withSelfRel());
+        // With a version attribute, a given id would make the new row look detached; ids are generated.
+        entity.setId(null);
+        entity = bookRepository.save(entity);
+        var dto = BookMapper.fromBookToDto(entity);
+        countCache.invalidate(RESOURCE);
+        autocompleteService.indexBook(entity);
+        dto.add(linkTo(methodOn(BookController.class).findById(dto.getKey(), null)).withSelfRel());
         return dto;
     }
 
     public BookDto update(BookDto book) {
+        return update(book, null);
+    }
+
+    /**
+     * Updates the book only if {@code ifMatch}, when given, matches its current version.
+     * A concurrent update between that check and the commit is still caught by {@code @Version}.
+     */
+    public BookDto update(BookDto book, String ifMatch) {
         if (book == null) throw new RequiredObjectIsNullException();
+        var version = ETags.version(ifMatch);
+        if (version != null) return updateIfVersion(book, version);
         logger.info("Updating one book!");
         var entity = bookRepository.findById(book.getKey())
                 .orElseThrow(ResourceNotFoundException::new);
+        if (!ETags.matches(ifMatch, entity.getVersion()))
+            throw new PreconditionFailedException("The book was modified since it was read!");
 
         entity.setAuthor(book.getAuthor());
         entity.setPrice(book.getPrice());
         entity.setTitle(book.getTitle());
         entity.setLaunchDate(book.getLaunchDate());
 
-        var dto = BookMapper.fromBookToDto(bookRepository.save(entity));
-        dto.add(linkTo(methodOn(BookController.class).findById(dto.getKey())).withSelfRel());
+        entity = bookRepository.save(entity);
+        var dto = BookMapper.fromBookToDto(entity);
+        dtoCache.invalidate(RESOURCE, entity.getId());
+        autocompleteService.indexBook(entity);
+        dto.add(linkTo(methodOn(BookController.class).findById(dto.getKey(), null)).withSelfRel());
+        return dto;
+    }
+
+    /**
+     * One UPDATE conditioned on the version the client read, instead of a SELECT followed by an
+     * UPDATE. Every column is written, so the response is built from the request.
+     */
+    private BookDto updateIfVersion(BookDto book, long version) {
+        logger.info("Updating one book at version " + version + "!");
+        int updated = bookRepository.updateIfVersion(book.getKey(), version,
+                book.getAuthor(), book.getLaunchDate(), book.getPrice(), book.getTitle());
+        if (updated == 0) {
+            if (!bookRepository.existsById(book.getKey())) throw new ResourceNotFoundException();
+            throw new PreconditionFailedException("The book was modified since it was read!");
+        }
+
+        var entity = BookMapper.fromDtoToBook(book);
+        entity.setVersion(version + 1);
+        var dto = BookMapper.fromBookToDto(entity);
+        dtoCache.invalidate(RESOURCE, entity.getId());
+        autocompleteService.indexBook(entity);
+        dto.add(linkTo(methodOn(BookController.class).findById(dto.getKey(), null)).withSelfRel());
         return dto;
     }
 
+    /**
+     * Inserts the books in JDBC batches, ignoring any given key. Items are reported individually,
+     * so one invalid book does not fail the rest of the request.
+     */
+    public List<BulkItemResultDto> bulkCreate(List<BookDto> books) {
+        if (books == null || books.stream().anyMatch(Objects::isNull)) throw new RequiredObjectIsNullException();
+        logger.info("Creating " + books.size() + " books in bulk!");
+
+        var results = batchWriter.write(books, chunk -> {
+            var entities = BookMapper.parseListDtoToBook(chunk);
+            entities.forEach(b -> b.setId(null));
+            return bookRepository.saveAll(entities);
+        }, Book::getId, BulkItemResultDto.Status.CREATED, saved -> saved.forEach(autocompleteService::indexBook));
+        countCache.invalidate(RESOURCE);
+        return results;
+    }
+
+    /**
+     * Loads each chunk with a single query and lets dirty checking flush the changes as one
+     * JDBC batch on commit.
+     */
+    public List<BulkItemResultDto> bulkUpdate(List<BookDto> books) {
+        if (books == null || books.stream().anyMatch(b -> b == null || b.getKey() == null)) {
+            throw new RequiredObjectIsNullException();
+        }
+        logger.info("Updating " + books.size() + " books in bulk!");
+
+        var results = batchWriter.write(books, chunk -> {
+            var ids = new ArrayList<Long>(chunk.size());
+            chunk.forEach(b -> ids.add(b.getKey()));
+            var entitiesById = new HashMap<Long, Book>();
+            bookRepository.findAllById(ids).forEach(b -> entitiesById.put(b.getId(), b));
+
+            var updated = new ArrayList<Book>(chunk.size());
+            for (BookDto book : chunk) {
+                var entity = entitiesById.get(book.getKey());
+                if (entity == null) throw new ResourceNotFoundException();
+                entity.setAuthor(book.getAuthor());
+                entity.setPrice(book.getPrice());
+                entity.setTitle(book.getTitle());
+                entity.setLaunchDate(book.getLaunchDate());
+                updated.add(entity);
+            }
+            return updated;
+        }, Book::getId, BulkItemResultDto.Status.UPDATED, saved -> saved.forEach(b -> {
+            dtoCache.invalidate(RESOURCE, b.getId());
+            autocompleteService.indexBook(b);
+        }));
+        countCache.invalidate(RESOURCE);
+        return results;
+    }
+
     public void delete(Long id) {
         logger.info("Deleting one book!");
 
         var entity = bookRepository.findById(id)
                 .orElseThrow(ResourceNotFoundException::new);
         bookRepository.delete(entity);
+        countCache.invalidate(RESOURCE);
+        dtoCache.invalidate(RESOURCE, id);
+        autocompleteService.removeBook(id);
     }
 }
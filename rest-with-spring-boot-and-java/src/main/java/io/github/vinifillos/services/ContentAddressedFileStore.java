@@ -0,0 +1,131 @@
+package io.github.vinifillos.services;
+
+import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.FileStorageException;
+import io.github.vinifillos.exceptions.MyFileNotFoundException;
+import io.github.vinifillos.model.StoredFileEntry;
+import io.github.vinifillos.repositories.FileBlobRepository;
+import io.github.vinifillos.repositories.StoredFileEntryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Logger;
+
+/**
+ * Storage used when {@code file.storage-mode} is {@code content}. Each distinct content is kept
+ * once under {@code objects/<first 2 hex>/<next 2 hex>/<sha256>}, and uploaded names map to it
+ * through the {@code stored_file} table. {@code file_blob} counts the names pointing at each
+ * content, whose file is deleted after the last one moves away and that change has committed.
+ */
+@Service
+public class ContentAddressedFileStore {
+
+    private final Path objectsLocation;
+    private final StoredFileEntryRepository fileRepository;
+    private final FileBlobRepository blobRepository;
+    private final TransactionTemplate cleanupTransaction;
+    private final Logger logger = Logger.getLogger(ContentAddressedFileStore.class.getName());
+
+    public ContentAddressedFileStore(FileStorageConfig fileStorageConfig,
+                                     StoredFileEntryRepository fileRepository,
+                                     FileBlobRepository blobRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.objectsLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize().resolve("objects");
+        this.fileRepository = fileRepository;
+        this.blobRepository = blobRepository;
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Points {@code name} at the content of {@code file}, which must have the given SHA-256. The
+     * file is moved into the store unless that content is already there, in which case it is
+     * left in place for the caller to delete. Runs in READ COMMITTED so looking up a name that
+     * does not exist yet takes no gap lock that concurrent uploads could deadlock on.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Path link(String name, String sha256, long size, Path file) {
+        try {
+            var entry = fileRepository.findForUpdate(name).orElse(null);
+            var previous = entry == null ? null : entry.getSha256();
+
+            // The upsert keeps the blob row locked, so it cannot be released and deleted meanwhile.
+            blobRepository.acquire(sha256, size);
+            var blob = blobPath(sha256);
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                logger.fine("Content of " + name + " is already stored!");
+            }
+
+            if (entry == null) entry = new StoredFileEntry(name, sha256, size);
+            entry.setSha256(sha256);
+            entry.setSize(size);
+            fileRepository.save(entry);
+
+            if (previous != null) release(previous);
+            return blob;
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + name + ". Please try again!", ex);
+        }
+    }
+
+    public Path resolve(String name) {
+        var entry = fileRepository.findById(name)
+                .orElseThrow(() -> new MyFileNotFoundException("File not found " + name));
+        var blob = blobPath(entry.getSha256());
+        if (!Files.isRegularFile(blob)) throw new MyFileNotFoundException("File not found " + name);
+        return blob;
+    }
+
+    /**
+     * Drops a reference to the content. The file of unreferenced content is only deleted once the
+     * transaction has committed, so a rollback never leaves a row pointing at a missing file.
+     */
+    private void release(String sha256) {
+        blobRepository.release(sha256);
+        if (blobRepository.deleteIfUnreferenced(sha256) == 0) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteUnreferenced(sha256);
+                }
+            });
+        } else {
+            deleteUnreferenced(sha256);
+        }
+    }
+
+    /**
+     * Deletes the content's file unless an upload has referenced it again since its row was
+     * dropped. The row is locked meanwhile, so an upload of the same content waits for the
+     * delete and then stores its own copy.
+     */
+    private void deleteUnreferenced(String sha256) {
+        cleanupTransaction.executeWithoutResult(status -> {
+            if (blobRepository.findForUpdate(sha256).isPresent()) return;
+            try {
+                Files.deleteIfExists(blobPath(sha256));
+            } catch (IOException ex) {
+                logger.warning("Could not delete unreferenced content " + sha256 + "!");
+            }
+        });
+    }
+
+    private Path blobPath(String sha256) {
+        return objectsLocation.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+}
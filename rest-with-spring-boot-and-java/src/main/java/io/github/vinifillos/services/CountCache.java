@@ -0,0 +1,46 @@
+package io.github.vinifillos.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived total counts for the paged endpoints, keyed by resource and filter
+ * (e.g. {@code person:name:vini}). Writes that add or remove rows invalidate every
+ * count of their resource.
+ */
+@Component
+public class CountCache {
+
+    private final Cache<String, Long> cache;
+
+    public CountCache(@Value("${pagination.count-cache.ttl:30s}") Duration ttl,
+                      @Value("${pagination.count-cache.max-size:1000}") long maximumSize,
+                      MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pagination.counts");
+    }
+
+    public long get(String resource, String filter, Supplier<Long> counter) {
+        var key = resource + ":" + filter;
+        var count = cache.getIfPresent(key);
+        if (count != null) return count;
+        count = counter.get();
+        cache.put(key, count);
+        return count;
+    }
+
+    public void invalidate(String resource) {
+        cache.asMap().keySet().removeIf(key -> key.startsWith(resource + ":"));
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.vinifillos.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vinifillos.util.CacheGenerations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.server.mvc.BasicLinkBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fully built single-resource DTOs, links included, keyed by resource and id
+ * (e.g. {@code person:42}), together with their already serialized bodies per media type.
+ * Cached DTOs are shared between requests and must not be modified. Every write that changes a
+ * row, including bulk JPQL updates that bypass the persistence context, must invalidate its key,
+ * which drops the DTO and every encoding of it.
+ */
+@Component
+public class DtoCache {
+
+    /**
+     * A serialized response body with its strong ETag.
+     */
+    public record Encoded(byte[] body, MediaType contentType, String eTag) {
+    }
+
+    /**
+     * Links are absolute, so an entry is only reused for requests with the same base URI.
+     */
+    private record Entry(String baseUri, Object dto, Map<MediaType, Encoded> encodings) {
+    }
+
+    private final Cache<String, Entry> cache;
+    private final CacheGenerations generations = new CacheGenerations();
+    private final Counter encodedHits;
+    private final Counter encodedMisses;
+
+    public DtoCache(@Value("${dto-cache.ttl:5m}") Duration ttl,
+                    @Value("${dto-cache.max-size:10000}") long maximumSize,
+                    MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dtos");
+        this.encodedHits = Counter.builder("dtos.encoded.gets").tag("result", "hit")
+                .description("Serialized responses served from the DTO cache").register(meterRegistry);
+        this.encodedMisses = Counter.builder("dtos.encoded.gets").tag("result", "miss")
+                .description("Responses that had to be serialized").register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String resource, Long id, Supplier<T> loader) {
+        return (T) entry(resource, id, loader).dto();
+    }
+
+    /**
+     * The cached DTO, if any, without loading it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T peek(String resource, Long id) {
+        var entry = cache.getIfPresent(resource + ":" + id);
+        return entry == null ? null : (T) entry.dto();
+    }
+
+    /**
+     * The DTO serialized as {@code mediaType}, encoding it at most once per cached DTO.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Encoded getEncoded(String resource, Long id, MediaType mediaType, Supplier<T> loader,
+                                  Function<? super T, Encoded> encoder) {
+        var entry = entry(resource, id, loader);
+        var encoded = entry.encodings().get(mediaType);
+        if (encoded != null) {
+            encodedHits.increment();
+            return encoded;
+        }
+        encodedMisses.increment();
+        encoded = encoder.apply((T) entry.dto());
+        entry.encodings().put(mediaType, encoded);
+        return encoded;
+    }
+
+    private Entry entry(String resource, Long id, Supplier<?> loader) {
+        var key = resource + ":" + id;
+        var baseUri = baseUri();
+        var entry = cache.getIfPresent(key);
+        if (entry != null && entry.baseUri().equals(baseUri)) return entry;
+        // Load outside of the cache's compute lock so a JDBC call never pins a virtual thread, and
+        // only keep the result if no write invalidated the key while it was loading.
+        long generation = generations.current(key);
+        entry = new Entry(baseUri, loader.get(), new ConcurrentHashMap<>(4));
+        generations.putIfCurrent(cache, key, entry, generation);
+        return entry;
+    }
+
+    /**
+     * Base URI of the current request, or an empty string outside of one (startup tasks, tests),
+     * where links are built without request context.
+     */
+    private static String baseUri() {
+        if (RequestContextHolder.getRequestAttributes() == null) return "";
+        return BasicLinkBuilder.linkToCurrentMapping().toString();
+    }
+
+    /**
+     * Evicts the DTO now and, when called inside a transaction, again after it commits, so a
+     * read racing with the write cannot keep the old row cached.
+     */
+    public void invalidate(String resource, Long id) {
+        var key = resource + ":" + id;
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(key);
+                }
+            });
+        }
+    }
+
+    private void evict(String key) {
+        generations.invalidate(key);
+        cache.invalidate(key);
+    }
+}
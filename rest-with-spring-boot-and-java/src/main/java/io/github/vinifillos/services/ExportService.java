@@ -0,0 +1,102 @@
+package io.github.vinifillos.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.vinifillos.util.ExportFormat;
+import io.github.vinifillos.util.ExportWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the response. Rows come from a MySQL streaming result set inside a
+ * read-only transaction and each entity is detached once written, so neither the JDBC driver
+ * nor the persistence context holds more than one row at a time.
+ */
+@Service
+public class ExportService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper xmlMapper;
+    private final ObjectMapper yamlMapper;
+    private final Duration timeout;
+
+    public ExportService(PlatformTransactionManager transactionManager,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         Jackson2ObjectMapperBuilder objectMapperBuilder,
+                         @Value("${export.timeout:30m}") Duration timeout) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.jsonMapper = objectMapper;
+        this.xmlMapper = objectMapperBuilder.createXmlMapper(true).build();
+        // Same modules and features as the Spring-configured JSON mapper, only with a YAML generator.
+        this.yamlMapper = objectMapper.copyWith(new YAMLFactory());
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param rows     opens the row stream; called on the thread writing the response
+     * @param rootName XML root element, e.g. {@code people}
+     * @param itemName XML row element, e.g. {@code person}
+     */
+    public <T> StreamingResponseBody export(ExportFormat format, List<ExportWriter.Column<T>> columns,
+                                            String rootName, String itemName, Supplier<Stream<T>> rows) {
+        return out -> transactionTemplate.executeWithoutResult(tx -> {
+            try (var stream = rows.get(); var writer = writer(format, columns, rootName, itemName, out)) {
+                var iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    var row = iterator.next();
+                    writer.write(row);
+                    entityManager.detach(row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes the export to the response on an async task limited by {@code export.timeout}, so
+     * long downloads do not depend on the application-wide async request timeout. Status and
+     * headers must be set on the response before calling this.
+     */
+    public WebAsyncTask<Void> respond(StreamingResponseBody body, HttpServletResponse response) {
+        return new WebAsyncTask<>(timeout.toMillis(), () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    private <T> ExportWriter<T> writer(ExportFormat format, List<ExportWriter.Column<T>> columns,
+                                       String rootName, String itemName, OutputStream out) throws IOException {
+        var mapper = switch (format) {
+            case CSV -> null;
+            case XML -> xmlMapper;
+            case YAML -> yamlMapper;
+            case JSON, NDJSON -> jsonMapper;
+        };
+        if (mapper == null) return ExportWriter.csv(out, columns);
+        var generator = mapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return ExportWriter.jackson(generator, format, columns, rootName, itemName);
+    }
+}
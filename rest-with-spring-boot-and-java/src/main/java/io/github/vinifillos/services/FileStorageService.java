@@ -1,52 +1,202 @@
 package io.github.vinifillos.services;
 
 import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.ChecksumMismatchException;
 import io.github.vinifillos.exceptions.FileStorageException;
 import io.github.vinifillos.exceptions.MyFileNotFoundException;
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 @Service
 public class FileStorageService {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final Path fileStorageLocation;
+    private final Path incomingLocation;
+    private final ContentAddressedFileStore contentStore;
+    private final long maxUploadSize;
+    private final int uploadConcurrencyPerRequest;
+    private final Semaphore globalUploadPermits;
+    // Storing is I/O bound, so every file gets its own virtual thread and the semaphores do the limiting.
+    private final ExecutorService uploadExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("upload-", 0).factory());
+
+    public record StoredFile(String fileName, long size, String sha256) {
+    }
 
     @Autowired
-    public FileStorageService(FileStorageConfig fileStorageConfig) {
+    public FileStorageService(FileStorageConfig fileStorageConfig, ContentAddressedFileStore contentAddressedFileStore) {
 
+        this.contentStore = fileStorageConfig.getStorageMode() == FileStorageConfig.StorageMode.CONTENT ? contentAddressedFileStore : null;
         this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        // Partial uploads live on the same file system so completing one is an atomic rename.
+        this.incomingLocation = this.fileStorageLocation.resolve(".incoming");
+        this.maxUploadSize = fileStorageConfig.getMaxUploadSize().toBytes();
+        this.uploadConcurrencyPerRequest = fileStorageConfig.getUploadConcurrencyPerRequest();
+        this.globalUploadPermits = new Semaphore(fileStorageConfig.getUploadConcurrencyGlobal(), true);
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.incomingLocation);
+            try (var leftovers = Files.newDirectoryStream(this.incomingLocation, "*.part")) {
+                for (Path leftover : leftovers) Files.deleteIfExists(leftover);
+            }
         } catch (Exception ex) {
             throw new FileStorageException("Could not create the directory where the uploaded files will be stored!", ex);
         }
     }
 
-    public String storeFile(MultipartFile file) {
+    public StoredFile storeFile(MultipartFile file) {
 
         String filename = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
+        try (var content = file.getInputStream()) {
+            return store(filename, content, null);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + filename + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Stores the files concurrently, at most {@code file.upload-concurrency-per-request} at a time
+     * for this call and {@code file.upload-concurrency-global} across all calls. Futures are in
+     * input order and each one fails on its own.
+     */
+    public List<CompletableFuture<StoredFile>> storeFiles(MultipartFile[] files) {
+        var requestPermits = new Semaphore(uploadConcurrencyPerRequest);
+        var uploads = new ArrayList<CompletableFuture<StoredFile>>(files.length);
+        for (MultipartFile file : files) {
+            uploads.add(CompletableFuture.supplyAsync(() -> {
+                requestPermits.acquireUninterruptibly();
+                try {
+                    globalUploadPermits.acquireUninterruptibly();
+                    try {
+                        return storeFile(file);
+                    } finally {
+                        globalUploadPermits.release();
+                    }
+                } finally {
+                    requestPermits.release();
+                }
+            }, uploadExecutor));
+        }
+        return uploads;
+    }
+
+    /**
+     * Streams {@code content} into the upload directory while computing its SHA-256, so the bytes
+     * are written to disk exactly once. The file only becomes visible under its name, replacing
+     * any previous version, once it is complete and, when {@code expectedSha256} is given, verified.
+     */
+    public StoredFile store(String fileName, InputStream content, String expectedSha256) {
+        String filename = checkFileName(fileName);
+        Path partial = null;
         try {
-            if (filename.contains(".."))
-                throw new FileStorageException("Sorry! filename contains invalid path sequence " + filename);
-            Path targetLocation = this.fileStorageLocation.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            return filename;
-        } catch (Exception ex) {
+            partial = Files.createTempFile(this.incomingLocation, "upload-", ".part");
+            var digest = sha256();
+            long size = 0;
+            try (var source = Channels.newChannel(content);
+                 var target = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxUploadSize)
+                        throw new PayloadTooLargeException("File " + filename + " exceeds the maximum upload size of " + maxUploadSize + " bytes!");
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) target.write(buffer);
+                    buffer.clear();
+                }
+                target.force(false);
+            }
+            var sha256 = HexFormat.of().formatHex(digest.digest());
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256))
+                throw new ChecksumMismatchException("Checksum mismatch for " + filename + ": received content has SHA-256 " + sha256 + "!");
+            return publish(filename, partial, size, sha256);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + filename + ". Please try again!", ex);
+        } finally {
+            deletePartial(partial);
+        }
+    }
+
+    /**
+     * Makes a complete file, whose size and SHA-256 are already known, visible under
+     * {@code fileName}. The file must be in the upload directory's file system; it is moved or,
+     * in content mode when the content is already stored, deleted.
+     */
+    public StoredFile publish(String fileName, Path file, long size, String sha256) {
+        String filename = checkFileName(fileName);
+        try {
+            if (contentStore != null) contentStore.link(filename, sha256, size, file);
+            else Files.move(file, resolveFileName(filename), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new StoredFile(filename, size, sha256);
+        } catch (IOException ex) {
             throw new FileStorageException("Could not store file " + filename + ". Please try again!", ex);
+        } finally {
+            deletePartial(file);
         }
     }
 
+    /**
+     * Cleans {@code fileName} and rejects names that would not be stored directly in the upload
+     * directory.
+     */
+    public String checkFileName(String fileName) {
+        String filename = StringUtils.cleanPath(Objects.requireNonNull(fileName));
+        resolveFileName(filename);
+        return filename;
+    }
+
+    /**
+     * Path of a stored file, rejecting names that resolve outside the upload directory. In
+     * content mode this is the shared content file, not named after the upload.
+     */
+    public Path loadFilePath(String fileName) {
+        if (contentStore != null) return contentStore.resolve(fileName);
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!this.fileStorageLocation.equals(filePath.getParent()) || !Files.isRegularFile(filePath))
+            throw new MyFileNotFoundException("File not found " + fileName);
+        return filePath;
+    }
+
     public Resource loadFileAsResource(String fileName) {
+        if (contentStore != null) {
+            // Keep the uploaded name rather than the hash the content is stored under.
+            return new FileSystemResource(contentStore.resolve(fileName)) {
+                @Override
+                public String getFilename() {
+                    return fileName;
+                }
+            };
+        }
         try {
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
             Resource resource = new UrlResource(filePath.toUri());
@@ -56,4 +206,35 @@ public class FileStorageService {
             throw new MyFileNotFoundException("File not found " + fileName, ex);
         }
     }
+
+    private Path resolveFileName(String filename) {
+        if (filename.contains(".."))
+            throw new FileStorageException("Sorry! filename contains invalid path sequence " + filename);
+        Path targetLocation = this.fileStorageLocation.resolve(filename).normalize();
+        if (!this.fileStorageLocation.equals(targetLocation.getParent()) || filename.startsWith("."))
+            throw new FileStorageException("Sorry! filename contains invalid path sequence " + filename);
+        return targetLocation;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+
+    private static void deletePartial(Path partial) {
+        if (partial == null) return;
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException ignored) {
+            // Removed on the next start.
+        }
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        uploadExecutor.shutdown();
+    }
 }
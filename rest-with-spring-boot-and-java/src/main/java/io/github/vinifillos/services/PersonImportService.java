@@ -0,0 +1,230 @@
+package io.github.vinifillos.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.vinifillos.config.PersonImportConfig;
+import io.github.vinifillos.exceptions.InvalidImportFileException;
+import io.github.vinifillos.mapper.PersonMapper;
+import io.github.vinifillos.model.Person;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.model.dto.ImportResultDto;
+import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.repositories.PersonRepository;
+import io.github.vinifillos.util.BoundedLineReader;
+import io.github.vinifillos.util.CsvReader;
+import io.github.vinifillos.util.MalformedRecordException;
+import io.github.vinifillos.util.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports people from CSV or NDJSON request bodies of any size. Rows are parsed one at a time and
+ * committed in batches of {@code person.import.batch-size}, so memory use does not depend on the
+ * file size. Invalid rows, including rows longer than {@code person.import.max-line-length}, are
+ * skipped and reported by line number.
+ */
+@Service
+public class PersonImportService {
+
+    private final PersonRepository personRepository;
+    private final BatchWriter batchWriter;
+    private final CountCache countCache;
+    private final AutocompleteService autocompleteService;
+    private final PersonImportConfig importConfig;
+    private final ObjectReader personReader;
+    private final Logger logger = Logger.getLogger(PersonImportService.class.getName());
+
+    public PersonImportService(PersonRepository personRepository,
+                               BatchWriter batchWriter,
+                               CountCache countCache,
+                               AutocompleteService autocompleteService,
+                               PersonImportConfig importConfig,
+                               ObjectMapper objectMapper) {
+        this.personRepository = personRepository;
+        this.batchWriter = batchWriter;
+        this.countCache = countCache;
+        this.autocompleteService = autocompleteService;
+        this.importConfig = importConfig;
+        this.personReader = objectMapper.readerFor(PersonDto.class);
+    }
+
+    /**
+     * Reads the raw request body, so the file is never spooled through multipart handling and its
+     * size is not bound by the multipart limits. The format is chosen by the content type.
+     */
+    public ImportResultDto importPeople(String contentType, InputStream body) {
+        var type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        boolean csv = type.startsWith(MediaType.TEXT_CSV);
+        boolean ndjson = type.startsWith(MediaType.APPLICATION_NDJSON);
+        if (!csv && !ndjson) throw new InvalidImportFileException("Only CSV and NDJSON files can be imported!");
+
+        logger.info("Importing people from " + (csv ? "CSV" : "NDJSON") + "!");
+        var run = new ImportRun();
+        try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (csv) readCsv(reader, run);
+            else readNdjson(reader, run);
+            run.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Import aborted after " + run.result.getImported() + " people!", e);
+            throw new InvalidImportFileException("Could not read the imported file! " + run.result.getImported()
+                    + " people were imported before the error.");
+        } finally {
+            if (run.result.getImported() > 0) countCache.invalidate(PersonService.RESOURCE);
+        }
+        logger.info("Imported " + run.result.getImported() + " of " + run.result.getProcessed() + " people!");
+        return run.result;
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        var csv = new CsvReader(reader, importConfig.getMaxLineLength());
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (MalformedRecordException e) {
+            throw new InvalidImportFileException("CSV header is malformed: " + e.getMessage());
+        }
+        if (header == null) return;
+        var columns = CsvColumns.of(header);
+
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.readRecord();
+            } catch (MalformedRecordException e) {
+                run.fail(e.getLine(), e.getMessage());
+                continue;
+            }
+            if (record == null) break;
+            var line = csv.getRecordLine();
+            if (record.size() != header.size()) {
+                run.fail(line, "Expected " + header.size() + " columns but found " + record.size() + "!");
+                continue;
+            }
+            var person = new PersonDto();
+            person.setFirstName(record.get(columns.firstName()));
+            person.setLastName(record.get(columns.lastName()));
+            person.setAddress(record.get(columns.address()));
+            person.setGender(record.get(columns.gender()));
+            if (columns.enabled() >= 0) person.setEnabled(Boolean.parseBoolean(record.get(columns.enabled()).strip()));
+            run.add(line, person);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        var lines = new BoundedLineReader(reader, importConfig.getMaxLineLength());
+        while (true) {
+            String json;
+            try {
+                json = lines.readLine();
+            } catch (MalformedRecordException e) {
+                run.fail(e.getLine(), e.getMessage());
+                continue;
+            }
+            if (json == null) break;
+            var line = lines.getLineNumber();
+            if (json.isBlank()) continue;
+            try {
+                run.add(line, personReader.readValue(json));
+            } catch (JsonProcessingException e) {
+                run.fail(line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static String validate(PersonDto person) {
+        if (isInvalid(person.getFirstName(), 20)) return "First name is required and must have at most 20 characters!";
+        if (isInvalid(person.getLastName(), 20)) return "Last name is required and must have at most 20 characters!";
+        if (isInvalid(person.getAddress(), 40)) return "Address is required and must have at most 40 characters!";
+        if (isInvalid(person.getGender(), 10)) return "Gender is required and must have at most 10 characters!";
+        return null;
+    }
+
+    private static boolean isInvalid(String value, int maxLength) {
+        return value == null || value.isBlank() || value.length() > maxLength;
+    }
+
+    /**
+     * Column positions of a CSV header. Names are matched ignoring case, spaces and underscores, so
+     * both {@code first_name} and {@code firstName} are accepted; {@code enabled} is optional.
+     */
+    private record CsvColumns(int firstName, int lastName, int address, int gender, int enabled) {
+
+        static CsvColumns of(List<String> header) {
+            var names = new ArrayList<String>(header.size());
+            for (String column : header) {
+                names.add(column.strip().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT));
+            }
+            return new CsvColumns(required(names, "firstname"), required(names, "lastname"),
+                    required(names, "address"), required(names, "gender"), names.indexOf("enabled"));
+        }
+
+        private static int required(List<String> names, String name) {
+            int index = names.indexOf(name);
+            if (index < 0) throw new InvalidImportFileException("CSV header is missing the " + name + " column!");
+            return index;
+        }
+    }
+
+    /**
+     * State of one import: the rows waiting for the next commit and the running totals.
+     */
+    private class ImportRun {
+
+        private final ImportResultDto result = new ImportResultDto();
+        private final List<Person> batch = new ArrayList<>(importConfig.getBatchSize());
+        private final List<Long> lines = new ArrayList<>(importConfig.getBatchSize());
+
+        void add(long line, PersonDto person) {
+            result.setProcessed(result.getProcessed() + 1);
+            var error = validate(person);
+            if (error != null) {
+                recordError(line, error);
+                return;
+            }
+            var entity = PersonMapper.fromDtoToPerson(person);
+            if (entity.getEnabled() == null) entity.setEnabled(true);
+            batch.add(entity);
+            lines.add(line);
+            if (batch.size() >= importConfig.getBatchSize()) flush();
+        }
+
+        void fail(long line, String error) {
+            result.setProcessed(result.getProcessed() + 1);
+            recordError(line, error);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            var results = batchWriter.write(batch, importConfig.getBatchSize(), chunk -> {
+                chunk.forEach(p -> p.setId(null));
+                return personRepository.saveAll(chunk);
+            }, Person::getId, BulkItemResultDto.Status.CREATED, saved -> saved.forEach(autocompleteService::indexPerson));
+            for (BulkItemResultDto item : results) {
+                if (item.getStatus() == BulkItemResultDto.Status.FAILED) recordError(lines.get(item.getIndex()), item.getError());
+                else result.setImported(result.getImported() + 1);
+            }
+            batch.clear();
+            lines.clear();
+            logger.info("Import progress: " + result.getProcessed() + " rows read, " + result.getImported()
+                    + " imported, " + result.getFailed() + " failed");
+        }
+
+        private void recordError(long line, String error) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < importConfig.getMaxReportedErrors()) {
+                result.getErrors().add(new ImportResultDto.RowError(line, error));
+            }
+        }
+    }
+}
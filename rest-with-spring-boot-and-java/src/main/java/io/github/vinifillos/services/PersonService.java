@@ -1,61 +1,180 @@
 package io.github.vinifillos.services;
 
 import io.github.vinifillos.controllers.PersonController;
+import io.github.vinifillos.exceptions.PreconditionFailedException;
 import io.github.vinifillos.exceptions.RequiredObjectIsNullException;
 import io.github.vinifillos.exceptions.ResourceNotFoundException;
 import io.github.vinifillos.mapper.PersonMapper;
+import io.github.vinifillos.model.Person;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.model.dto.CursorPageDto;
+import io.github.vinifillos.model.dto.DisableResultDto;
 import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.model.dto.SuggestionDto;
 import io.github.vinifillos.repositories.PersonRepository;
+import io.github.vinifillos.util.ETags;
+import io.github.vinifillos.util.ExportFormat;
+import io.github.vinifillos.util.ExportWriter;
+import io.github.vinifillos.util.KeysetCursor;
+import io.github.vinifillos.util.LinkTemplate;
+import io.github.vinifillos.util.PagedModels;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 
 @Service
 @RequiredArgsConstructor
 public class PersonService {
 
+    static final String RESOURCE = "person";
+    private static final int NGRAM_TOKEN_SIZE = 2;
+    private static final List<ExportWriter.Column<Person>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("id", Person::getId),
+            new ExportWriter.Column<>("firstName", Person::getFirstName),
+            new ExportWriter.Column<>("lastName", Person::getLastName),
+            new ExportWriter.Column<>("address", Person::getAddress),
+            new ExportWriter.Column<>("gender", Person::getGender),
+            new ExportWriter.Column<>("enabled", Person::getEnabled));
+
     private final PersonRepository personRepository;
+    private final CountCache countCache;
+    private final DtoCache dtoCache;
+    private final ResponseEncoder responseEncoder;
+    private final AutocompleteService autocompleteService;
+    private final BatchWriter batchWriter;
+    private final ExportService exportService;
     private final Logger logger = Logger.getLogger(PersonService.class.getName());
     final PagedResourcesAssembler<PersonDto> assembler;
 
-    public PagedModel<EntityModel<PersonDto>> findAll(Pageable pageable) {
+    public PagedModel<EntityModel<PersonDto>> findAll(Pageable pageable, Boolean count) {
         logger.info("Finding all people!");
 
-        var personPage = personRepository.findAll(pageable);
-        var personDtosPage = personPage.map(PersonMapper::fromPersonToDto);
-        personDtosPage.map(p -> p.add(linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel()));
-        Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
-        return assembler.toModel(personDtosPage, link);
+        var personSlice = personRepository.findAllAsSlice(pageable);
+        var personDtosSlice = personSlice.map(PersonMapper::fromPersonToDto);
+        var selfLinks = LinkTemplate.forController(PersonController.class);
+        personDtosSlice.forEach(p -> p.add(selfLinks.selfRel(p.getKey())));
+        Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", count, null)).withSelfRel();
+        if (!Boolean.TRUE.equals(count)) return PagedModels.withoutTotals(personDtosSlice, link);
+        long total = countCache.get(RESOURCE, "all", personRepository::count);
+        return assembler.toModel(new PageImpl<>(personDtosSlice.getContent(), pageable, total), link);
     }
 
-    public PagedModel<EntityModel<PersonDto>> findPeopleByName(String firstName, Pageable pageable) {
+    public PagedModel<EntityModel<PersonDto>> findPeopleByName(String firstName, Pageable pageable, Boolean count) {
         logger.info("Finding all people!");
 
-        var personPage = personRepository.findPeopleByName(firstName, pageable);
-        var personDtosPage = personPage.map(PersonMapper::fromPersonToDto);
-        personDtosPage.map(p -> p.add(linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel()));
-        Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
-        return assembler.toModel(personDtosPage, link);
+        var personSlice = searchByName(firstName, pageable);
+        var personDtosSlice = personSlice.map(PersonMapper::fromPersonToDto);
+        var selfLinks = LinkTemplate.forController(PersonController.class);
+        personDtosSlice.forEach(p -> p.add(selfLinks.selfRel(p.getKey())));
+        Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", count, null)).withSelfRel();
+        if (!Boolean.TRUE.equals(count)) return PagedModels.withoutTotals(personDtosSlice, link);
+        long total = countCache.get(RESOURCE, "name:" + firstName, () -> countByName(firstName));
+        return assembler.toModel(new PageImpl<>(personDtosSlice.getContent(), pageable, total), link);
+    }
+
+    /**
+     * Substring search on first_name through the ngram FULLTEXT index: the term is searched as a
+     * phrase, so its consecutive ngrams must all match. Terms shorter than one ngram cannot use
+     * the index and fall back to LIKE.
+     */
+    private Slice<Person> searchByName(String firstName, Pageable pageable) {
+        var term = fullTextTerm(firstName);
+        if (term.length() < NGRAM_TOKEN_SIZE) return personRepository.findPeopleByNameAsSlice(term, pageable);
+        return personRepository.searchPeopleByName("\"" + term + "\"", pageable);
+    }
+
+    private long countByName(String firstName) {
+        var term = fullTextTerm(firstName);
+        if (term.length() < NGRAM_TOKEN_SIZE) return personRepository.countPeopleByName(term);
+        return personRepository.countSearchPeopleByName("\"" + term + "\"");
+    }
+
+    private static String fullTextTerm(String firstName) {
+        return firstName.replace("\"", "").trim();
+    }
+
+    public CursorPageDto<PersonDto> findAllByKeyset(String cursor, Integer size, String direction, Boolean count) {
+        logger.info("Finding all people by keyset!");
+
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        size = PagedModels.clampSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Person> people;
+        if (cursor == null || cursor.isBlank()) {
+            people = descending ? personRepository.findFirstKeysetPageDesc(limit) : personRepository.findFirstKeysetPageAsc(limit);
+        } else {
+            var position = KeysetCursor.decode(cursor);
+            people = descending
+                    ? personRepository.findKeysetPageDesc(position.key(), position.id(), limit)
+                    : personRepository.findKeysetPageAsc(position.key(), position.id(), limit);
+        }
+        boolean hasNext = people.size() >= limit.getPageSize();
+        if (hasNext) people = people.subList(0, limit.getPageSize() - 1);
+
+        var dtos = PersonMapper.parseListPersonToDto(people);
+        var selfLinks = LinkTemplate.forController(PersonController.class);
+        dtos.forEach(p -> p.add(selfLinks.selfRel(p.getKey())));
+
+        var page = new CursorPageDto<>(dtos, Boolean.TRUE.equals(count) ? personRepository.count() : null);
+        page.add(linkTo(methodOn(PersonController.class).findAllByKeyset(cursor, size, direction, count, null)).withSelfRel());
+        if (hasNext) {
+            var last = people.getLast();
+            var next = new KeysetCursor(last.getFirstName(), last.getId()).encode();
+            page.add(linkTo(methodOn(PersonController.class).findAllByKeyset(next, size, direction, count, null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    public StreamingResponseBody export(ExportFormat format) {
+        logger.info("Exporting all people!");
+        return exportService.export(format, EXPORT_COLUMNS, "people", "person", personRepository::streamAll);
+    }
+
+    public List<SuggestionDto> autocomplete(String prefix, Integer limit) {
+        return autocompleteService.suggestPeople(prefix, limit);
     }
 
     public PersonDto findById(Long id) {
+        return dtoCache.get(RESOURCE, id, () -> loadById(id));
+    }
+
+    /**
+     * The person serialized as {@code mediaType}, from the DTO cache when possible, so repeated
+     * reads skip both the query and the serialization.
+     */
+    public DtoCache.Encoded findByIdEncoded(Long id, MediaType mediaType) {
+        return dtoCache.getEncoded(RESOURCE, id, mediaType, () -> loadById(id), dto -> responseEncoder.encode(dto, mediaType, ETags.of(dto, mediaType)));
+    }
+
+    private PersonDto loadById(Long id) {
         logger.info("Finding one person!");
 
         var entity = personRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         var dto = PersonMapper.fromPersonToDto(entity);
-        dto.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(PersonController.class).findById(id, null)).withSelfRel());
         return dto;
     }
 
@@ -63,43 +182,180 @@ public class PersonService {
         if (person == null) throw new RequiredObjectIsNullException();
         logger.info("Creating one person!");
         var entity = PersonMapper.fromDtoToPerson(person);
-        var dto = PersonMapper.fromPersonToDto(personRepository.save(entity));
-        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getKey())).withSelfRel());
+        // With a version attribute, a given id would make the new row look detached; ids are generated.
+        entity.setId(null);
+        entity = personRepository.save(entity);
+        var dto = PersonMapper.fromPersonToDto(entity);
+        countCache.invalidate(RESOURCE);
+        autocompleteService.indexPerson(entity);
+        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getKey(), null)).withSelfRel());
         return dto;
     }
 
     public PersonDto update(PersonDto person) {
+        return update(person, null);
+    }
+
+    /**
+     * Updates the person only if {@code ifMatch}, when given, matches its current version.
+     * A concurrent update between that check and the commit is still caught by {@code @Version}.
+     */
+    public PersonDto update(PersonDto person, String ifMatch) {
         if (person == null) throw new RequiredObjectIsNullException();
+        var version = ETags.version(ifMatch);
+        if (version != null) return updateIfVersion(person, version);
         logger.info("Updating one person!");
         var entity = personRepository.findById(person.getKey())
                 .orElseThrow(ResourceNotFoundException::new);
+        if (!ETags.matches(ifMatch, entity.getVersion()))
+            throw new PreconditionFailedException("The person was modified since it was read!");
 
         entity.setAddress(person.getAddress());
         entity.setGender(person.getGender());
         entity.setFirstName(person.getFirstName());
         entity.setLastName(person.getLastName());
 
-        var dto = PersonMapper.fromPersonToDto(personRepository.save(entity));
-        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getKey())).withSelfRel());
+        entity = personRepository.save(entity);
+        var dto = PersonMapper.fromPersonToDto(entity);
+        countCache.invalidate(RESOURCE);
+        dtoCache.invalidate(RESOURCE, entity.getId());
+        autocompleteService.indexPerson(entity);
+        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getKey(), null)).withSelfRel());
         return dto;
     }
 
+    /**
+     * One UPDATE conditioned on the version the client read, instead of a SELECT followed by an
+     * UPDATE. {@code enabled} is not written, so the response takes it from the cached DTO of that
+     * version, which the client's GET normally left behind, and only reads the row when it is gone.
+     */
+    private PersonDto updateIfVersion(PersonDto person, long version) {
+        logger.info("Updating one person at version " + version + "!");
+        int updated = personRepository.updateIfVersion(person.getKey(), version,
+                person.getFirstName(), person.getLastName(), person.getAddress(), person.getGender());
+        if (updated == 0) {
+            if (!personRepository.existsById(person.getKey())) throw new ResourceNotFoundException();
+            throw new PreconditionFailedException("The person was modified since it was read!");
+        }
+
+        PersonDto previous = dtoCache.peek(RESOURCE, person.getKey());
+        dtoCache.invalidate(RESOURCE, person.getKey());
+        Person entity;
+        if (previous != null && Long.valueOf(version).equals(previous.getVersion())) {
+            entity = PersonMapper.fromDtoToPerson(person);
+            entity.setEnabled(previous.getEnabled());
+            entity.setVersion(version + 1);
+        } else {
+            entity = personRepository.findById(person.getKey()).orElseThrow(ResourceNotFoundException::new);
+        }
+        var dto = PersonMapper.fromPersonToDto(entity);
+        countCache.invalidate(RESOURCE);
+        autocompleteService.indexPerson(entity);
+        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getKey(), null)).withSelfRel());
+        return dto;
+    }
+
+    /**
+     * Inserts the people in JDBC batches, ignoring any given key. Items are reported individually,
+     * so one invalid person does not fail the rest of the request.
+     */
+    public List<BulkItemResultDto> bulkCreate(List<PersonDto> people) {
+        if (people == null || people.stream().anyMatch(Objects::isNull)) throw new RequiredObjectIsNullException();
+        logger.info("Creating " + people.size() + " people in bulk!");
+
+        var results = batchWriter.write(people, chunk -> {
+            var entities = PersonMapper.parseListDtoToPerson(chunk);
+            entities.forEach(p -> p.setId(null));
+            return personRepository.saveAll(entities);
+        }, Person::getId, BulkItemResultDto.Status.CREATED, saved -> saved.forEach(autocompleteService::indexPerson));
+        countCache.invalidate(RESOURCE);
+        return results;
+    }
+
+    /**
+     * Loads each chunk with a single query and lets dirty checking flush the changes as one
+     * JDBC batch on commit.
+     */
+    public List<BulkItemResultDto> bulkUpdate(List<PersonDto> people) {
+        if (people == null || people.stream().anyMatch(p -> p == null || p.getKey() == null)) {
+            throw new RequiredObjectIsNullException();
+        }
+        logger.info("Updating " + people.size() + " people in bulk!");
+
+        var results = batchWriter.write(people, chunk -> {
+            var ids = new ArrayList<Long>(chunk.size());
+            chunk.forEach(p -> ids.add(p.getKey()));
+            var entitiesById = new HashMap<Long, Person>();
+            personRepository.findAllById(ids).forEach(p -> entitiesById.put(p.getId(), p));
+
+            var updated = new ArrayList<Person>(chunk.size());
+            for (PersonDto person : chunk) {
+                var entity = entitiesById.get(person.getKey());
+                if (entity == null) throw new ResourceNotFoundException();
+                entity.setAddress(person.getAddress());
+                entity.setGender(person.getGender());
+                entity.setFirstName(person.getFirstName());
+                entity.setLastName(person.getLastName());
+                updated.add(entity);
+            }
+            return updated;
+        }, Person::getId, BulkItemResultDto.Status.UPDATED, saved -> saved.forEach(p -> {
+            dtoCache.invalidate(RESOURCE, p.getId());
+            autocompleteService.indexPerson(p);
+        }));
+        countCache.invalidate(RESOURCE);
+        return results;
+    }
+
+    /**
+     * When the person is cached, a single UPDATE conditioned on the cached version disables it
+     * and the response is derived from the cached DTO. Otherwise the person is loaded into the
+     * persistence context and disabled through dirty checking, so the returned state is the one
+     * written, never a stale managed copy.
+     */
     @Transactional
     public PersonDto disablePerson(Long id) {
         logger.info("Disabling one person!");
-        personRepository.disablePerson(id);
-        var entity = personRepository.findById(id)
-                .orElseThrow(ResourceNotFoundException::new);
+        PersonDto cached = dtoCache.peek(RESOURCE, id);
+        Person entity;
+        if (cached != null && cached.getVersion() != null
+                && personRepository.disableIfVersion(id, cached.getVersion()) == 1) {
+            entity = PersonMapper.fromDtoToPerson(cached);
+            entity.setEnabled(false);
+            entity.setVersion(cached.getVersion() + 1);
+        } else {
+            entity = personRepository.findById(id)
+                    .orElseThrow(ResourceNotFoundException::new);
+            entity.setEnabled(false);
+            personRepository.flush();
+        }
+        dtoCache.invalidate(RESOURCE, id);
         var dto = PersonMapper.fromPersonToDto(entity);
-        dto.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(PersonController.class).findById(id, null)).withSelfRel());
         return dto;
     }
 
+    @Transactional
+    public DisableResultDto disablePeople(List<Long> ids) {
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) throw new RequiredObjectIsNullException();
+        batchWriter.checkLimit(ids.size());
+        var distinct = new HashSet<>(ids);
+        logger.info("Disabling " + distinct.size() + " people in bulk!");
+        if (distinct.isEmpty()) return new DisableResultDto(0, 0);
+
+        int disabled = personRepository.disablePeople(distinct);
+        distinct.forEach(id -> dtoCache.invalidate(RESOURCE, id));
+        return new DisableResultDto(distinct.size(), disabled);
+    }
+
     public void delete(Long id) {
         logger.info("Deleting one person!");
 
         var entity = personRepository.findById(id)
                 .orElseThrow(ResourceNotFoundException::new);
         personRepository.delete(entity);
+        countCache.invalidate(RESOURCE);
+        dtoCache.invalidate(RESOURCE, id);
+        autocompleteService.removePerson(id);
     }
 }
@@ -0,0 +1,94 @@
+package io.github.vinifillos.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Serializes response bodies ahead of time with the same message converters Spring MVC would use,
+ * HATEOAS and YAML ones included, so a cached body is byte for byte what the controller would
+ * have written.
+ */
+@Component
+public class ResponseEncoder {
+
+    /**
+     * Media types of the single-resource endpoints, in order of preference.
+     */
+    public static final List<MediaType> MEDIA_TYPES = List.of(
+            MediaType.parseMediaType(io.github.vinifillos.util.MediaType.APPLICATION_JSON),
+            MediaType.parseMediaType(io.github.vinifillos.util.MediaType.APPLICATION_XML),
+            MediaType.parseMediaType(io.github.vinifillos.util.MediaType.APPLICATION_YML));
+
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    public ResponseEncoder(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * First of {@link #MEDIA_TYPES} in the client's order of preference, JSON when the header is
+     * absent or accepts anything, or {@code null} when none is acceptable.
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return MEDIA_TYPES.getFirst();
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return null;
+        }
+        for (var type : accepted) {
+            for (var mediaType : MEDIA_TYPES) {
+                if (type.includes(mediaType)) return mediaType;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public DtoCache.Encoded encode(Object body, MediaType mediaType, String eTag) {
+        for (HttpMessageConverter<?> converter : handlerAdapter.getObject().getMessageConverters()) {
+            if (!converter.canWrite(body.getClass(), mediaType)) continue;
+            var message = new BufferedOutputMessage();
+            try {
+                ((HttpMessageConverter<Object>) converter).write(body, mediaType, message);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not serialize " + body.getClass().getSimpleName() + " as " + mediaType + "!", e);
+            }
+            var bytes = message.body.toByteArray();
+            var contentType = message.headers.getContentType() != null ? message.headers.getContentType() : mediaType;
+            return new DtoCache.Encoded(bytes, contentType, eTag);
+        }
+        throw new IllegalStateException("No converter writes " + body.getClass().getSimpleName() + " as " + mediaType + "!");
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
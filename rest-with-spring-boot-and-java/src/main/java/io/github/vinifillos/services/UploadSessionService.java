@@ -0,0 +1,353 @@
+package io.github.vinifillos.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.ChecksumMismatchException;
+import io.github.vinifillos.exceptions.FileStorageException;
+import io.github.vinifillos.exceptions.InvalidUploadChunkException;
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.exceptions.RequiredObjectIsNullException;
+import io.github.vinifillos.exceptions.ResourceNotFoundException;
+import io.github.vinifillos.model.dto.UploadSessionDto;
+import io.github.vinifillos.model.dto.UploadSessionRequestDto;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resumable uploads: a session preallocates the target file, chunks are written straight to
+ * their offset with positional {@link FileChannel} writes (so they may arrive in any order and
+ * in parallel), and completing the session publishes the file through
+ * {@link FileStorageService#publish}. Each session's state is kept in a JSON file next to its
+ * data, updated only after a chunk is on disk, so sessions survive a restart. Chunk writes share a
+ * session's read lock; completing, aborting and expiring it take the write lock, so the data file
+ * cannot change after its checksum is verified or disappear under a chunk being written.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String STATE_SUFFIX = ".json";
+    private static final String DATA_SUFFIX = ".data";
+
+    private final FileStorageService fileStorageService;
+    private final ObjectMapper objectMapper;
+    private final Path sessionsLocation;
+    private final long defaultChunkSize;
+    private final long minChunkSize;
+    private final long maxChunkSize;
+    private final long maxUploadSize;
+    private final Duration sessionTtl;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final Logger logger = Logger.getLogger(UploadSessionService.class.getName());
+
+    /**
+     * Persisted state of one session. {@code received} is the {@link BitSet} of stored chunks,
+     * guarded by {@code stateLock}; {@code lock} guards the data file.
+     */
+    @Data
+    @NoArgsConstructor
+    static class UploadSession {
+        private String id;
+        private String fileName;
+        private long size;
+        private long chunkSize;
+        private String sha256;
+        private long createdAt;
+        private long[] received = new long[0];
+
+        @JsonIgnore
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        @JsonIgnore
+        private final ReentrantLock stateLock = new ReentrantLock();
+
+        int chunkCount() {
+            return (int) ((size + chunkSize - 1) / chunkSize);
+        }
+    }
+
+    public UploadSessionService(FileStorageService fileStorageService,
+                                FileStorageConfig fileStorageConfig,
+                                ObjectMapper objectMapper) {
+        this.fileStorageService = fileStorageService;
+        this.objectMapper = objectMapper;
+        this.sessionsLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize().resolve(".sessions");
+        this.defaultChunkSize = fileStorageConfig.getUploadChunkSize().toBytes();
+        this.minChunkSize = fileStorageConfig.getUploadMinChunkSize().toBytes();
+        this.maxChunkSize = fileStorageConfig.getUploadMaxChunkSize().toBytes();
+        this.maxUploadSize = fileStorageConfig.getMaxUploadSize().toBytes();
+        this.sessionTtl = fileStorageConfig.getUploadSessionTtl();
+        try {
+            Files.createDirectories(this.sessionsLocation);
+            resumeSessions();
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not load the upload sessions!", ex);
+        }
+    }
+
+    public UploadSessionDto create(UploadSessionRequestDto request) {
+        if (request == null || request.getFileName() == null || request.getSize() == null)
+            throw new RequiredObjectIsNullException("File name and size are required!");
+        long chunkSize = request.getChunkSize() == null ? defaultChunkSize : request.getChunkSize();
+        if (request.getSize() < 1 || chunkSize < minChunkSize || chunkSize > maxChunkSize)
+            throw new InvalidUploadChunkException("Size must be positive and the chunk size between " + minChunkSize + " and " + maxChunkSize + " bytes!");
+        if (request.getSize() > maxUploadSize)
+            throw new PayloadTooLargeException("File " + request.getFileName() + " exceeds the maximum upload size of " + maxUploadSize + " bytes!");
+        expireSessions();
+
+        var session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setFileName(fileStorageService.checkFileName(request.getFileName()));
+        session.setSize(request.getSize());
+        session.setChunkSize(chunkSize);
+        session.setSha256(request.getSha256());
+        session.setCreatedAt(System.currentTimeMillis());
+        try (var data = new RandomAccessFile(dataPath(session.getId()).toFile(), "rw")) {
+            // Reserve the full length up front so every chunk is a write at a fixed offset.
+            data.setLength(session.getSize());
+            saveState(session);
+        } catch (IOException ex) {
+            deleteSession(session.getId());
+            throw new FileStorageException("Could not create an upload session for " + request.getFileName() + "!", ex);
+        }
+        sessions.put(session.getId(), session);
+        logger.info("Created upload session " + session.getId() + " for " + session.getFileName() + "!");
+        return toDto(session);
+    }
+
+    public UploadSessionDto find(String id) {
+        var session = session(id);
+        session.getStateLock().lock();
+        try {
+            return toDto(session);
+        } finally {
+            session.getStateLock().unlock();
+        }
+    }
+
+    /**
+     * Writes chunk {@code index} at its offset. Sending a chunk again overwrites it, so a chunk
+     * interrupted mid-transfer can simply be retried.
+     */
+    public UploadSessionDto writeChunk(String id, int index, InputStream content) {
+        var session = session(id);
+        if (index < 0 || index >= session.chunkCount())
+            throw new InvalidUploadChunkException("Chunk " + index + " is out of range, the upload has " + session.chunkCount() + " chunks!");
+        long offset = index * session.getChunkSize();
+        long expected = Math.min(session.getChunkSize(), session.getSize() - offset);
+
+        session.getLock().readLock().lock();
+        try {
+            requireActive(session);
+            long written = 0;
+            try (var source = Channels.newChannel(content);
+                 var target = FileChannel.open(dataPath(id), StandardOpenOption.WRITE)) {
+                var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    written += buffer.remaining();
+                    if (written > expected)
+                        throw new InvalidUploadChunkException("Chunk " + index + " must have " + expected + " bytes!");
+                    while (buffer.hasRemaining()) target.write(buffer, offset + written - buffer.remaining());
+                    buffer.clear();
+                }
+                target.force(false);
+            } catch (NoSuchFileException ex) {
+                throw new ResourceNotFoundException("No upload session found for this ID!");
+            } catch (IOException ex) {
+                throw new FileStorageException("Could not store chunk " + index + " of upload " + id + "!", ex);
+            }
+            if (written != expected)
+                throw new InvalidUploadChunkException("Chunk " + index + " must have " + expected + " bytes but had " + written + "!");
+
+            session.getStateLock().lock();
+            try {
+                var received = BitSet.valueOf(session.getReceived());
+                received.set(index);
+                session.setReceived(received.toLongArray());
+                saveState(session);
+                return toDto(session);
+            } catch (IOException ex) {
+                throw new FileStorageException("Could not save upload session " + id + "!", ex);
+            } finally {
+                session.getStateLock().unlock();
+            }
+        } finally {
+            session.getLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Verifies that every chunk arrived and, when the session was created with one, the
+     * checksum, then publishes the file under its name.
+     */
+    public FileStorageService.StoredFile complete(String id) {
+        var session = session(id);
+        session.getLock().writeLock().lock();
+        try {
+            requireActive(session);
+            var received = BitSet.valueOf(session.getReceived());
+            if (received.cardinality() != session.chunkCount())
+                throw new InvalidUploadChunkException("Upload " + id + " is missing " + (session.chunkCount() - received.cardinality()) + " chunks!");
+
+            var data = dataPath(id);
+            var sha256 = sha256(data);
+            if (session.getSha256() != null && !session.getSha256().equalsIgnoreCase(sha256))
+                throw new ChecksumMismatchException("Checksum mismatch for " + session.getFileName() + ": received content has SHA-256 " + sha256 + "!");
+
+            // Publishing consumes the data file even when it fails, so the session ends either way.
+            FileStorageService.StoredFile stored;
+            try {
+                stored = fileStorageService.publish(session.getFileName(), data, session.getSize(), sha256);
+            } finally {
+                sessions.remove(id);
+                deleteSession(id);
+            }
+            logger.info("Completed upload session " + id + "!");
+            return stored;
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not complete upload " + id + "!", ex);
+        } finally {
+            session.getLock().writeLock().unlock();
+        }
+    }
+
+    public void abort(String id) {
+        var session = session(id);
+        session.getLock().writeLock().lock();
+        try {
+            requireActive(session);
+            sessions.remove(id);
+            deleteSession(id);
+        } finally {
+            session.getLock().writeLock().unlock();
+        }
+    }
+
+    private UploadSession session(String id) {
+        var session = sessions.get(id);
+        if (session == null) throw new ResourceNotFoundException("No upload session found for this ID!");
+        return session;
+    }
+
+    /**
+     * Checks, with the session's lock held, that it was not completed, aborted or expired while
+     * the caller waited for the lock.
+     */
+    private void requireActive(UploadSession session) {
+        if (sessions.get(session.getId()) != session)
+            throw new ResourceNotFoundException("No upload session found for this ID!");
+    }
+
+    private void resumeSessions() throws IOException {
+        try (var states = Files.newDirectoryStream(sessionsLocation, "*" + STATE_SUFFIX)) {
+            for (Path state : states) {
+                try {
+                    var session = objectMapper.readValue(state.toFile(), UploadSession.class);
+                    if (Files.exists(dataPath(session.getId()))) sessions.put(session.getId(), session);
+                    else Files.deleteIfExists(state);
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING, "Discarding unreadable upload session " + state.getFileName() + "!", ex);
+                    Files.deleteIfExists(state);
+                }
+            }
+        }
+        expireSessions();
+        logger.info("Resumed " + sessions.size() + " upload sessions!");
+    }
+
+    /**
+     * Drops sessions older than the TTL. A session with a chunk write in flight is left for the
+     * next pass rather than waited for.
+     */
+    private void expireSessions() {
+        long oldest = System.currentTimeMillis() - sessionTtl.toMillis();
+        for (var session : sessions.values()) {
+            if (session.getCreatedAt() >= oldest || !session.getLock().writeLock().tryLock()) continue;
+            try {
+                if (sessions.remove(session.getId(), session)) deleteSession(session.getId());
+            } finally {
+                session.getLock().writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the state to a temporary file and renames it, so a crash never leaves a torn state.
+     */
+    private void saveState(UploadSession session) throws IOException {
+        var state = sessionsLocation.resolve(session.getId() + STATE_SUFFIX);
+        var temporary = sessionsLocation.resolve(session.getId() + STATE_SUFFIX + ".tmp");
+        Files.write(temporary, objectMapper.writeValueAsBytes(session));
+        Files.move(temporary, state, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteSession(String id) {
+        try {
+            Files.deleteIfExists(sessionsLocation.resolve(id + STATE_SUFFIX));
+            Files.deleteIfExists(dataPath(id));
+        } catch (IOException ex) {
+            logger.warning("Could not delete upload session " + id + "!");
+        }
+    }
+
+    private Path dataPath(String id) {
+        return sessionsLocation.resolve(id + DATA_SUFFIX);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static UploadSessionDto toDto(UploadSession session) {
+        var received = BitSet.valueOf(session.getReceived());
+        var missing = new ArrayList<Integer>(session.chunkCount() - received.cardinality());
+        for (int i = received.nextClearBit(0); i < session.chunkCount(); i = received.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return new UploadSessionDto(session.getId(), session.getFileName(), session.getSize(),
+                session.getChunkSize(), session.chunkCount(), missing);
+    }
+}
@@ -1,27 +1,117 @@
 package io.github.vinifillos.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vinifillos.model.User;
 import io.github.vinifillos.repositories.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.github.vinifillos.util.CacheGenerations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Service
-@RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository personRepository;
     private final Logger logger = Logger.getLogger(UserService.class.getName());
+    private final Cache<String, User> userCache;
+    private final Cache<String, Boolean> accountStatusCache;
+    private final CacheGenerations generations = new CacheGenerations();
+
+    public UserService(UserRepository personRepository,
+                       @Value("${security.user-cache.max-size:1000}") long userCacheMaxSize,
+                       @Value("${security.user-cache.ttl:5m}") Duration userCacheTtl,
+                       @Value("${security.jwt.token.account-status-ttl:30s}") Duration accountStatusTtl,
+                       MeterRegistry meterRegistry) {
+        this.personRepository = personRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtl)
+                .recordStats()
+                .build();
+        this.accountStatusCache = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(accountStatusTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "users.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, accountStatusCache, "users.account-status");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        if (logger.isLoggable(Level.INFO)) logger.info("Finding one user by name " + username + "!");
-        var user = personRepository.findByUsername(username);
+        var user = findByUsername(username);
         if(user != null) return user;
         else throw new UsernameNotFoundException("Username "+ username+" not found!");
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the user with its permissions, served from the user cache when possible.
+     * Unknown usernames are not cached.
+     */
+    public User findByUsername(String username) {
+        var user = userCache.getIfPresent(username);
+        if (user != null) return user;
+        if (logger.isLoggable(Level.INFO)) logger.info("Finding one user by name " + username + "!");
+        // Load outside of the cache's compute lock so a JDBC call never pins a virtual thread, and
+        // only keep the result if the user was not evicted while it was loading.
+        long generation = generations.current(username);
+        user = personRepository.findByUsername(username);
+        if (user != null) generations.putIfCurrent(userCache, username, user, generation);
+        return user;
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash was produced
+     * with another algorithm or cost than the configured one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        logger.info("Re-hashing the password of one user!");
+        personRepository.updatePassword(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        if (user instanceof User entity) entity.setPassword(newPassword);
+        return user;
+    }
+
+    /**
+     * Whether the user exists and is enabled, unlocked and unexpired. The answer is cached for
+     * {@code security.jwt.token.account-status-ttl}, which bounds how long a disabled or locked
+     * account keeps working with an already issued token.
+     */
+    public boolean isAccountActive(String username) {
+        var active = accountStatusCache.getIfPresent(username);
+        if (active != null) return active;
+        long generation = generations.current(username);
+        active = personRepository.isAccountActive(username);
+        generations.putIfCurrent(accountStatusCache, username, active, generation);
+        return active;
+    }
+
+    /**
+     * Must be called whenever a user's password, {@code enabled}, {@code accountNonLocked} or
+     * permissions change, so neither the login path nor the token filter keeps serving stale data.
+     */
+    public void evict(String username) {
+        generations.invalidate(username);
+        userCache.invalidate(username);
+        accountStatusCache.invalidate(username);
+    }
+
+    public void evictAll() {
+        generations.invalidateAll();
+        userCache.invalidateAll();
+        accountStatusCache.invalidateAll();
+    }
+}
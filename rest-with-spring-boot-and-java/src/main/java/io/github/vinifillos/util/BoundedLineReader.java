@@ -0,0 +1,57 @@
+package io.github.vinifillos.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Line reader that never buffers more than {@code maxLineLength} characters, unlike
+ * {@link BufferedReader#readLine()}, which keeps reading until it finds a line break.
+ */
+public class BoundedLineReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final int maxLineLength;
+    private final StringBuilder buffer = new StringBuilder();
+    private long line;
+
+    public BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Returns the next line without its terminator, or {@code null} at the end of the input.
+     *
+     * @throws MalformedRecordException if the line is longer than the limit; the rest of it is skipped
+     */
+    public String readLine() throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        line++;
+        buffer.setLength(0);
+        boolean tooLong = false;
+        for (; c != -1 && c != '\n'; c = reader.read()) {
+            if (buffer.length() < maxLineLength) buffer.append((char) c);
+            else tooLong = true;
+        }
+        if (tooLong) throw new MalformedRecordException(line, "Line is longer than " + maxLineLength + " characters!");
+        int end = buffer.length();
+        if (end > 0 && buffer.charAt(end - 1) == '\r') end--;
+        return buffer.substring(0, end);
+    }
+
+    /**
+     * Number of the line last returned by {@link #readLine()}.
+     */
+    public long getLineNumber() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
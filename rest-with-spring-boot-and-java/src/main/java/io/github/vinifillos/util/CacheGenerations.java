@@ -0,0 +1,46 @@
+package io.github.vinifillos.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Invalidation counters for caches that load outside of the cache's compute lock. A reader takes
+ * the generation of its key before loading and stores the loaded value only if the key was not
+ * invalidated in the meantime, so a slow load cannot put back a value that a concurrent write
+ * already evicted. Keys share a fixed number of counters; a collision only costs an extra miss.
+ */
+public class CacheGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public long current(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Stores {@code value} unless {@code key} was invalidated since {@code generation} was read.
+     * The check and the write are atomic with respect to {@link Cache#invalidate}.
+     */
+    public <K, V> void putIfCurrent(Cache<K, V> cache, K key, V value, long generation) {
+        cache.asMap().compute(key, (k, cached) -> current(k) == generation ? value : cached);
+    }
+
+    /**
+     * Must be called before the key is evicted from the cache.
+     */
+    public void invalidate(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) generations.incrementAndGet(i);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
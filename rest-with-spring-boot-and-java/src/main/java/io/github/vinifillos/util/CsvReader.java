@@ -0,0 +1,109 @@
+package io.github.vinifillos.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader that returns one record at a time, so arbitrarily large files can be
+ * processed with constant memory. Quoted fields may contain separators, doubled quotes and line
+ * breaks. Records longer than {@code maxRecordLength} characters are rejected rather than
+ * buffered, so a missing closing quote cannot pull the rest of the file into one field.
+ */
+public class CsvReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this(reader, Integer.MAX_VALUE);
+    }
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Returns the next record, or {@code null} at the end of the input. Blank lines are skipped.
+     *
+     * @throws MalformedRecordException if the record is too long or its last quoted field is never
+     *                                  closed; reading resumes on the next physical line
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') line++;
+            c = reader.read();
+        }
+        if (c == -1) return null;
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        boolean quoted = false;
+        int length = 0;
+        field.setLength(0);
+        while (true) {
+            if (c != -1 && c != '\n' && ++length > maxRecordLength) {
+                skipLine();
+                throw new MalformedRecordException(recordLine, "Record is longer than " + maxRecordLength + " characters!");
+            }
+            if (quoted) {
+                if (c == -1) throw new MalformedRecordException(recordLine, "Unterminated quoted field!");
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    if (reader.read() == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') line++;
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && c != '\n');
+        if (c == '\n') line++;
+    }
+
+    /**
+     * Line on which the record last returned by {@link #readRecord()} starts.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.vinifillos.util;
+
+import io.github.vinifillos.model.dto.Versioned;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong {@code ETag}s derived from entity versions, so validators can be produced and checked
+ * without serializing the response.
+ */
+public class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * {@code "<version>-<subtype>"}: representations of one version in different media types
+     * differ byte for byte, so each gets its own tag.
+     */
+    public static String of(Versioned resource, MediaType mediaType) {
+        return "\"" + resource.getVersion() + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    /**
+     * Tag of a collection page: a digest of the id and version of every item, in order, plus
+     * anything else the page shows, such as totals.
+     */
+    public static String ofPage(Iterable<? extends Versioned> items, MediaType mediaType, Object... extras) {
+        var tag = new StringBuilder(mediaType != null ? mediaType.getSubtype() : "*");
+        for (Versioned item : items) {
+            tag.append(';').append(item.getKey()).append(':').append(item.getVersion());
+        }
+        for (Object extra : extras) {
+            tag.append('|').append(extra);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(tag.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The version of an {@code If-Match} header holding exactly one strong tag, otherwise
+     * {@code null}.
+     */
+    public static Long version(String ifMatch) {
+        if (ifMatch == null) return null;
+        var tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"") || tag.indexOf(',') >= 0) return null;
+        int dash = tag.indexOf('-');
+        if (dash < 2) return null;
+        try {
+            return Long.parseLong(tag.substring(1, dash));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Whether an {@code If-Match} header accepts the given version. An absent header or
+     * {@code *} accepts any; weak tags never match, as required for {@code If-Match}.
+     */
+    public static boolean matches(String ifMatch, Long version) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return true;
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) continue;
+            tag = tag.substring(1, tag.length() - 1);
+            int dash = tag.indexOf('-');
+            if (dash > 0 && tag.substring(0, dash).equals(String.valueOf(version))) return true;
+        }
+        return false;
+    }
+}
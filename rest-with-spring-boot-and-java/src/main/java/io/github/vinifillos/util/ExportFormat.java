@@ -0,0 +1,61 @@
+package io.github.vinifillos.util;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formats the export endpoints can stream, negotiated from the {@code Accept} header.
+ */
+public enum ExportFormat {
+
+    JSON(MediaType.APPLICATION_JSON, "json"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    XML(MediaType.APPLICATION_XML, "xml"),
+    YAML(MediaType.APPLICATION_YML, "yml"),
+    CSV(MediaType.TEXT_CSV, "csv");
+
+    private final org.springframework.http.MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = org.springframework.http.MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public org.springframework.http.MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static List<org.springframework.http.MediaType> mediaTypes() {
+        return Arrays.stream(values()).map(ExportFormat::getMediaType).toList();
+    }
+
+    /**
+     * First supported format in the client's order of preference, JSON when the header is absent
+     * or accepts anything, or {@code null} when none is acceptable.
+     */
+    public static ExportFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return JSON;
+        List<org.springframework.http.MediaType> accepted;
+        try {
+            accepted = org.springframework.http.MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return null;
+        }
+        for (var type : accepted) {
+            for (ExportFormat format : values()) {
+                if (type.includes(format.mediaType)) return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.vinifillos.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+
+import javax.xml.namespace.QName;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes rows one at a time in an {@link ExportFormat}, straight from the entities and without
+ * building DTOs or links, so an export of any size needs constant memory.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    public record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    protected final List<Column<T>> columns;
+
+    protected ExportWriter(List<Column<T>> columns) {
+        this.columns = columns;
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    /**
+     * CSV with a header row, as described in RFC 4180. Dates are written as ISO-8601 instants.
+     */
+    public static <T> ExportWriter<T> csv(OutputStream out, List<Column<T>> columns) throws IOException {
+        return new CsvWriter<>(out, columns);
+    }
+
+    /**
+     * JSON array, NDJSON, XML or YAML through the given generator. XML rows are written as
+     * {@code itemName} elements inside a {@code rootName} element.
+     */
+    public static <T> ExportWriter<T> jackson(JsonGenerator generator, ExportFormat format, List<Column<T>> columns,
+                                              String rootName, String itemName) throws IOException {
+        return new JacksonWriter<>(generator, format, columns, rootName, itemName);
+    }
+
+    private static class CsvWriter<T> extends ExportWriter<T> {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out, List<Column<T>> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) writer.write(',');
+                writeField(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) writer.write(',');
+                var value = columns.get(i).value().apply(row);
+                if (value instanceof Date date) writer.write(DateTimeFormatter.ISO_INSTANT.format(date.toInstant()));
+                else if (value != null) writeField(value.toString());
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class JacksonWriter<T> extends ExportWriter<T> {
+
+        private final JsonGenerator generator;
+        private final ExportFormat format;
+
+        JacksonWriter(JsonGenerator generator, ExportFormat format, List<Column<T>> columns,
+                      String rootName, String itemName) throws IOException {
+            super(columns);
+            this.generator = generator;
+            this.format = format;
+            switch (format) {
+                case NDJSON -> generator.setRootValueSeparator(null);
+                case XML -> {
+                    ((ToXmlGenerator) generator).setNextName(new QName(rootName));
+                    generator.writeStartObject();
+                    generator.writeFieldName(itemName);
+                    generator.writeStartArray();
+                }
+                default -> generator.writeStartArray();
+            }
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeObjectField(column.name(), column.value().apply(row));
+            }
+            generator.writeEndObject();
+            if (format == ExportFormat.NDJSON) generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            switch (format) {
+                case NDJSON -> { }
+                case XML -> {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                default -> generator.writeEndArray();
+            }
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vinifillos.util;
+
+import io.github.vinifillos.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort key plus the id as a tie breaker, encoded
+ * as an opaque URL-safe token for the {@code cursor} request parameter.
+ */
+public record KeysetCursor(String key, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        var raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vinifillos.util;
+
+import org.springframework.hateoas.Link;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Resolves a controller's base URI once and expands item self links from it, producing the same
+ * href as {@code linkTo(methodOn(controller).findById(id))} without an invocation proxy per item.
+ * Create one per request, since the base URI depends on the current request's host and headers.
+ */
+public class LinkTemplate {
+
+    private final String prefix;
+
+    private LinkTemplate(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * For controllers whose {@code findById} is mapped to {@code /{id}} under the class mapping.
+     */
+    public static LinkTemplate forController(Class<?> controller) {
+        return new LinkTemplate(linkTo(controller).toUri().toString() + "/");
+    }
+
+    public Link selfRel(Long id) {
+        return Link.of(prefix + id).withSelfRel();
+    }
+}
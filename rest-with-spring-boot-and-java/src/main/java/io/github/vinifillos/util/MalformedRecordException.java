@@ -0,0 +1,25 @@
+package io.github.vinifillos.util;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * A record that could not be read, either because it is longer than the reader's limit or because
+ * the input ended inside it. The reader has already skipped past it, so reading can continue with
+ * the next record.
+ */
+@Getter
+public class MalformedRecordException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long line;
+
+    public MalformedRecordException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+}
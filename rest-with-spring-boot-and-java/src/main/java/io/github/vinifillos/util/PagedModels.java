@@ -0,0 +1,38 @@
+package io.github.vinifillos.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Builds a {@link PagedModel} from a {@link Slice} when the client opted out of totals: no
+ * {@code page} metadata and no {@code last} link, but {@code prev}/{@code next} derived from
+ * the current request so no {@code COUNT(*)} is needed.
+ */
+public class PagedModels {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Bounds a client-supplied page size to {@code [1, MAX_PAGE_SIZE]}. */
+    public static int clampSize(Integer size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    public static <T> PagedModel<EntityModel<T>> withoutTotals(Slice<T> slice, Link self) {
+        var content = slice.getContent().stream().map(EntityModel::of).toList();
+        var model = PagedModel.of(content, (PagedModel.PageMetadata) null, self);
+        if (slice.hasPrevious()) model.add(pageLink(slice.getNumber() - 1, IanaLinkRelations.PREV.value()));
+        if (slice.hasNext()) model.add(pageLink(slice.getNumber() + 1, IanaLinkRelations.NEXT.value()));
+        return model;
+    }
+
+    private static Link pageLink(int page, String rel) {
+        var href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .toUriString();
+        return Link.of(href, rel);
+    }
+}
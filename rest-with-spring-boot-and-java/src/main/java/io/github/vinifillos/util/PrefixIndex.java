@@ -0,0 +1,69 @@
+package io.github.vinifillos.util;
+
+import io.github.vinifillos.model.dto.SuggestionDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted in-memory prefix index. Every indexed term is stored lower-cased and without accents as
+ * {@code term + '\0' + id}, so a prefix query is a range scan over the sorted keys and each id
+ * appears once per term. Safe for concurrent reads and updates.
+ */
+public class PrefixIndex {
+
+    private static final char ID_SEPARATOR = '\0';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+
+    private final ConcurrentSkipListMap<String, SuggestionDto> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysById = new ConcurrentHashMap<>();
+
+    public void put(Long id, String label, String... terms) {
+        keysById.compute(id, (key, previousKeys) -> {
+            if (previousKeys != null) previousKeys.forEach(entries::remove);
+            var suggestion = new SuggestionDto(id, label);
+            List<String> keys = new ArrayList<>(terms.length);
+            for (String term : terms) {
+                if (term == null || term.isBlank()) continue;
+                var entryKey = normalize(term) + ID_SEPARATOR + id;
+                entries.put(entryKey, suggestion);
+                keys.add(entryKey);
+            }
+            return keys;
+        });
+    }
+
+    public void remove(Long id) {
+        keysById.computeIfPresent(id, (key, keys) -> {
+            keys.forEach(entries::remove);
+            return null;
+        });
+    }
+
+    public List<SuggestionDto> search(String prefix, int limit) {
+        var normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty() || limit <= 0) return List.of();
+        Map<Long, SuggestionDto> matches = new LinkedHashMap<>();
+        for (SuggestionDto suggestion : entries.subMap(normalizedPrefix, normalizedPrefix + Character.MAX_VALUE).values()) {
+            matches.putIfAbsent(suggestion.getId(), suggestion);
+            if (matches.size() >= limit) break;
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    private static String normalize(String term) {
+        var decomposed = Normalizer.normalize(term.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
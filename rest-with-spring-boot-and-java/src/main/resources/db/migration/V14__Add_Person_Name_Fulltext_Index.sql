@@ -0,0 +1,8 @@
+-- The default InnoDB stopword list drops every ngram token that is a stopword ("an", "at", "be", ...),
+-- so names containing them would never match; build the index without it.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE `person`
+	ADD FULLTEXT INDEX `ft_person_first_name` (`first_name`) WITH PARSER ngram;
+
+SET SESSION innodb_ft_enable_stopword = DEFAULT;
@@ -0,0 +1,11 @@
+-- MySQL has no sequences, so Hibernate emulates person_seq and book_seq with single-row tables.
+-- They start past every id already handed out by AUTO_INCREMENT.
+CREATE TABLE `person_seq` (
+  `next_val` bigint DEFAULT NULL
+);
+INSERT INTO `person_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 51 FROM `person`;
+
+CREATE TABLE `book_seq` (
+  `next_val` bigint DEFAULT NULL
+);
+INSERT INTO `book_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 51 FROM `book`;
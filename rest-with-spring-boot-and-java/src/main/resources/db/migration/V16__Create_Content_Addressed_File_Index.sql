@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS `file_blob` (
+  `sha256` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  `ref_count` int NOT NULL,
+  PRIMARY KEY (`sha256`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `stored_file` (
+  `name` varchar(255) NOT NULL,
+  `sha256` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  PRIMARY KEY (`name`),
+  KEY `idx_stored_file_sha256` (`sha256`)
+) ENGINE=InnoDB;
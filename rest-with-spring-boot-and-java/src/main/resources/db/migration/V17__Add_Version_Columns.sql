@@ -0,0 +1,5 @@
+ALTER TABLE `person`
+	ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE `book`
+	ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
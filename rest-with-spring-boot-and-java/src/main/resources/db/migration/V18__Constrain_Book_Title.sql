@@ -0,0 +1,7 @@
+UPDATE `book` SET `title` = '' WHERE `title` IS NULL;
+
+UPDATE `book` SET `title` = LEFT(`title`, 200) WHERE CHAR_LENGTH(`title`) > 200;
+
+ALTER TABLE `book`
+	MODIFY COLUMN `title` VARCHAR(200) NOT NULL,
+	ADD INDEX `idx_book_title_id` (`title`, `id`);
@@ -18,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
@@ -63,7 +65,7 @@ public class PersonRepositoryTest extends AbstractIntegrationTest {
     @Order(2)
     void testDisablePerson() {
 
-        personRepository.disablePerson(person.getId());
+        personRepository.disablePeople(List.of(person.getId()));
         Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName"));
         person = personRepository.findPeopleByName("vini", pageable).getContent().getFirst();
 
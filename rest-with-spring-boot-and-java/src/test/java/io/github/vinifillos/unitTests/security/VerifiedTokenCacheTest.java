@@ -0,0 +1,66 @@
+package io.github.vinifillos.unitTests.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.github.vinifillos.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final Algorithm algorithm = Algorithm.HMAC256("secret");
+    private final JWTVerifier verifier = JWT.require(algorithm).build();
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_WithSameToken_VerifiesOnlyOnce() {
+        var token = JWT.create()
+                .withSubject("leandro")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(algorithm);
+        var verifications = new AtomicInteger();
+
+        var first = cache.get(token, t -> {
+            verifications.incrementAndGet();
+            return verifier.verify(t);
+        });
+        var second = cache.get(token, t -> {
+            verifications.incrementAndGet();
+            return verifier.verify(t);
+        });
+
+        assertEquals(1, verifications.get());
+        assertEquals("leandro", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void get_WithInvalidToken_DoesNotCacheFailure() {
+        var token = JWT.create()
+                .withSubject("leandro")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(Algorithm.HMAC256("another-secret"));
+        var verifications = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> cache.get(token, t -> {
+                verifications.incrementAndGet();
+                return verifier.verify(t);
+            }));
+        }
+        assertEquals(2, verifications.get());
+    }
+}
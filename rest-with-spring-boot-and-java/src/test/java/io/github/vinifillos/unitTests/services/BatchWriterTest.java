@@ -0,0 +1,77 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.model.dto.BulkItemResultDto;
+import io.github.vinifillos.services.BatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchWriterTest {
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransactionStatus transactionStatus;
+
+    private BatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = new BatchWriter(transactionManager, 2, 3);
+    }
+
+    @Test
+    void write_SplitsItemsIntoOneTransactionPerBatch() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        List<List<Long>> chunks = new ArrayList<>();
+
+        var results = batchWriter.write(List.of(1L, 2L, 3L), chunk -> {
+            chunks.add(List.copyOf(chunk));
+            return chunk;
+        }, id -> id, BulkItemResultDto.Status.CREATED, saved -> {});
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), chunks);
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        assertEquals(3, results.size());
+        assertEquals(new BulkItemResultDto(2, 3L, BulkItemResultDto.Status.CREATED, null), results.get(2));
+    }
+
+    @Test
+    void write_WhenBatchFails_RetriesItemsOneByOne() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        List<Long> committed = new ArrayList<>();
+
+        var results = batchWriter.write(List.of(1L, 2L), chunk -> {
+            if (chunk.contains(2L)) throw new IllegalStateException("Invalid item");
+            return chunk;
+        }, id -> id, BulkItemResultDto.Status.CREATED, committed::addAll);
+
+        assertEquals(List.of(1L), committed);
+        assertEquals(BulkItemResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BulkItemResultDto.Status.FAILED, results.get(1).getStatus());
+        assertEquals("Invalid item", results.get(1).getError());
+        assertNull(results.get(1).getKey());
+    }
+
+    @Test
+    void write_WithMoreThanMaxItems_ThrowsBeforeWriting() {
+        assertThrows(PayloadTooLargeException.class, () -> batchWriter.write(List.of(1L, 2L, 3L, 4L),
+                chunk -> chunk, id -> id, BulkItemResultDto.Status.CREATED, saved -> {}));
+
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -5,15 +5,24 @@ import io.github.vinifillos.model.Book;
 import io.github.vinifillos.model.dto.BookDto;
 import io.github.vinifillos.repositories.BookRepository;
 import io.github.vinifillos.services.BookService;
+import io.github.vinifillos.services.AutocompleteService;
+import io.github.vinifillos.services.BatchWriter;
+import io.github.vinifillos.services.CountCache;
+import io.github.vinifillos.services.DtoCache;
+import io.github.vinifillos.services.ExportService;
+import io.github.vinifillos.services.ResponseEncoder;
 import io.github.vinifillos.mocks.MockBook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +42,24 @@ class BookServiceTest {
     @Mock
     BookRepository bookRepository;
 
+    @Mock
+    CountCache countCache;
+
+    @Spy
+    DtoCache dtoCache = new DtoCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+
+    @Mock
+    AutocompleteService autocompleteService;
+
+    @Mock
+    BatchWriter batchWriter;
+
+    @Mock
+    ExportService exportService;
+
+    @Mock
+    ResponseEncoder responseEncoder;
+
     @BeforeEach
     void setUpMocks() {
         input = new MockBook();
@@ -0,0 +1,131 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.MyFileNotFoundException;
+import io.github.vinifillos.model.FileBlob;
+import io.github.vinifillos.model.StoredFileEntry;
+import io.github.vinifillos.repositories.FileBlobRepository;
+import io.github.vinifillos.repositories.StoredFileEntryRepository;
+import io.github.vinifillos.services.ContentAddressedFileStore;
+import io.github.vinifillos.services.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentAddressedFileStoreTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+    private static final String OLD_SHA256 = "c6a304536826fd8ab5cd2b0aa9d1cb5ec8e2ddb32e6b15b5e9dfa5e2c0f9a4c8";
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    StoredFileEntryRepository fileRepository;
+
+    @Mock
+    FileBlobRepository blobRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        var config = new FileStorageConfig();
+        config.setUploadDir(uploadDir.toString());
+        config.setStorageMode(FileStorageConfig.StorageMode.CONTENT);
+        service = new FileStorageService(config, new ContentAddressedFileStore(config, fileRepository, blobRepository, transactionManager));
+    }
+
+    @Test
+    void store_SameContentUnderTwoNames_KeepsOneCopy() throws IOException {
+        service.store("a.txt", content("hello"), null);
+        service.store("b.txt", content("hello"), null);
+
+        verify(blobRepository, times(2)).acquire(HELLO_SHA256, 5);
+        var blob = uploadDir.resolve("objects").resolve("2c").resolve("f2").resolve(HELLO_SHA256);
+        assertEquals("hello", Files.readString(blob));
+        assertFalse(Files.exists(uploadDir.resolve("a.txt")));
+        try (var partials = Files.list(uploadDir.resolve(".incoming"))) {
+            assertEquals(0, partials.count());
+        }
+    }
+
+    @Test
+    void store_OverwritingLastReference_DeletesOldContent() throws IOException {
+        var oldBlob = Files.createDirectories(uploadDir.resolve("objects/c6/a3")).resolve(OLD_SHA256);
+        Files.writeString(oldBlob, "old");
+        when(fileRepository.findForUpdate("a.txt")).thenReturn(Optional.of(new StoredFileEntry("a.txt", OLD_SHA256, 3L)));
+        when(blobRepository.deleteIfUnreferenced(OLD_SHA256)).thenReturn(1);
+
+        service.store("a.txt", content("hello"), null);
+
+        verify(blobRepository).release(OLD_SHA256);
+        assertFalse(Files.exists(oldBlob));
+    }
+
+    @Test
+    void store_InsideTransaction_DeletesOldContentOnlyAfterCommit() throws IOException {
+        var oldBlob = Files.createDirectories(uploadDir.resolve("objects/c6/a3")).resolve(OLD_SHA256);
+        Files.writeString(oldBlob, "old");
+        when(fileRepository.findForUpdate("a.txt")).thenReturn(Optional.of(new StoredFileEntry("a.txt", OLD_SHA256, 3L)));
+        when(blobRepository.deleteIfUnreferenced(OLD_SHA256)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.store("a.txt", content("hello"), null);
+            assertTrue(Files.exists(oldBlob));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(Files.exists(oldBlob));
+    }
+
+    @Test
+    void store_OldContentReferencedAgainBeforeCleanup_KeepsIt() throws IOException {
+        var oldBlob = Files.createDirectories(uploadDir.resolve("objects/c6/a3")).resolve(OLD_SHA256);
+        Files.writeString(oldBlob, "old");
+        when(fileRepository.findForUpdate("a.txt")).thenReturn(Optional.of(new StoredFileEntry("a.txt", OLD_SHA256, 3L)));
+        when(blobRepository.deleteIfUnreferenced(OLD_SHA256)).thenReturn(1);
+        when(blobRepository.findForUpdate(OLD_SHA256)).thenReturn(Optional.of(new FileBlob()));
+
+        service.store("a.txt", content("hello"), null);
+
+        assertTrue(Files.exists(oldBlob));
+    }
+
+    @Test
+    void loadFilePath_ResolvesNameToContent() throws IOException {
+        service.store("a.txt", content("hello"), null);
+        when(fileRepository.findById("a.txt")).thenReturn(Optional.of(new StoredFileEntry("a.txt", HELLO_SHA256, 5L)));
+
+        assertEquals("hello", Files.readString(service.loadFilePath("a.txt")));
+        assertEquals("a.txt", service.loadFileAsResource("a.txt").getFilename());
+        assertThrows(MyFileNotFoundException.class, () -> service.loadFilePath("missing.txt"));
+    }
+
+    private static ByteArrayInputStream content(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.services.FileDownloadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private Path file;
+    private FileDownloadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(uploadDir.resolve("notes.txt"), "0123456789", StandardCharsets.UTF_8);
+        service = new FileDownloadService(new MockServletContext());
+    }
+
+    @Test
+    void send_WithoutRange_SendsWholeFileWithValidators() throws IOException {
+        var response = new MockHttpServletResponse();
+
+        service.send(file, "notes.txt", new MockHttpServletRequest("GET", "/notes.txt"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertTrue(response.getContentType().startsWith("text/plain"));
+    }
+
+    @Test
+    void send_WithRange_SendsPartialContent() throws IOException {
+        var request = new MockHttpServletRequest("GET", "/notes.txt");
+        request.addHeader("Range", "bytes=2-5");
+        var response = new MockHttpServletResponse();
+
+        service.send(file, "notes.txt", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void send_WithRangePastEnd_Answers416() throws IOException {
+        var request = new MockHttpServletRequest("GET", "/notes.txt");
+        request.addHeader("Range", "bytes=20-");
+        var response = new MockHttpServletResponse();
+
+        service.send(file, "notes.txt", request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void send_WithStaleIfRange_SendsWholeFile() throws IOException {
+        var request = new MockHttpServletRequest("GET", "/notes.txt");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"outdated\"");
+        var response = new MockHttpServletResponse();
+
+        service.send(file, "notes.txt", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void send_WithMatchingIfNoneMatch_Answers304() throws IOException {
+        var first = new MockHttpServletResponse();
+        service.send(file, "notes.txt", new MockHttpServletRequest("GET", "/notes.txt"), first);
+
+        var request = new MockHttpServletRequest("GET", "/notes.txt");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        var response = new MockHttpServletResponse();
+        service.send(file, "notes.txt", request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
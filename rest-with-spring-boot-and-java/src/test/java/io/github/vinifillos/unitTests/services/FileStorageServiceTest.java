@@ -0,0 +1,107 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.ChecksumMismatchException;
+import io.github.vinifillos.exceptions.FileStorageException;
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.services.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStorageServiceTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        var config = new FileStorageConfig();
+        config.setUploadDir(uploadDir.toString());
+        config.setMaxUploadSize(DataSize.ofBytes(10));
+        service = new FileStorageService(config, null);
+    }
+
+    @Test
+    void store_WritesFileAndComputesSha256() throws IOException {
+        var stored = service.store("hello.txt", content("hello"), null);
+
+        assertEquals(new FileStorageService.StoredFile("hello.txt", 5, HELLO_SHA256), stored);
+        assertEquals("hello", Files.readString(uploadDir.resolve("hello.txt")));
+        assertEquals(0, countPartials());
+    }
+
+    @Test
+    void store_WithMatchingChecksum_ReplacesPreviousVersion() throws IOException {
+        service.store("hello.txt", content("old"), null);
+
+        service.store("hello.txt", content("hello"), HELLO_SHA256.toUpperCase());
+
+        assertEquals("hello", Files.readString(uploadDir.resolve("hello.txt")));
+    }
+
+    @Test
+    void store_WithWrongChecksum_KeepsNothing() throws IOException {
+        assertThrows(ChecksumMismatchException.class, () -> service.store("hello.txt", content("hello"), "00"));
+
+        assertFalse(Files.exists(uploadDir.resolve("hello.txt")));
+        assertEquals(0, countPartials());
+    }
+
+    @Test
+    void store_AboveMaxUploadSize_ThrowsPayloadTooLarge() throws IOException {
+        assertThrows(PayloadTooLargeException.class, () -> service.store("big.txt", content("more than ten bytes"), null));
+
+        assertFalse(Files.exists(uploadDir.resolve("big.txt")));
+        assertEquals(0, countPartials());
+    }
+
+    @Test
+    void store_WithPathOutsideUploadDir_IsRejected() {
+        assertThrows(FileStorageException.class, () -> service.store("../escape.txt", content("x"), null));
+        assertThrows(FileStorageException.class, () -> service.store(".incoming/x.part", content("x"), null));
+    }
+
+    @Test
+    void storeFiles_StoresEachFileAndIsolatesFailures() {
+        var files = new MultipartFile[]{
+                new MockMultipartFile("files", "a.txt", "text/plain", "hello".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "../b.txt", "text/plain", "x".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "c.txt", "text/plain", "hi".getBytes(StandardCharsets.UTF_8))
+        };
+
+        var uploads = service.storeFiles(files);
+
+        assertEquals(HELLO_SHA256, uploads.get(0).join().sha256());
+        assertThrows(CompletionException.class, () -> uploads.get(1).join());
+        assertEquals("c.txt", uploads.get(2).join().fileName());
+        assertTrue(Files.exists(uploadDir.resolve("a.txt")));
+        assertTrue(Files.exists(uploadDir.resolve("c.txt")));
+    }
+
+    private static ByteArrayInputStream content(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long countPartials() throws IOException {
+        try (var files = Files.list(uploadDir.resolve(".incoming"))) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.vinifillos.unitTests.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vinifillos.config.PersonImportConfig;
+import io.github.vinifillos.exceptions.InvalidImportFileException;
+import io.github.vinifillos.model.Person;
+import io.github.vinifillos.repositories.PersonRepository;
+import io.github.vinifillos.services.AutocompleteService;
+import io.github.vinifillos.services.BatchWriter;
+import io.github.vinifillos.services.CountCache;
+import io.github.vinifillos.services.PersonImportService;
+import io.github.vinifillos.util.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonImportServiceTest {
+
+    @Mock
+    PersonRepository repository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransactionStatus transactionStatus;
+
+    @Mock
+    CountCache countCache;
+
+    @Mock
+    AutocompleteService autocompleteService;
+
+    private PersonImportService service;
+
+    @BeforeEach
+    void setUp() {
+        var config = new PersonImportConfig();
+        config.setBatchSize(2);
+        config.setMaxLineLength(200);
+        service = new PersonImportService(repository, new BatchWriter(transactionManager, 50, 1000),
+                countCache, autocompleteService, config, new ObjectMapper());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importPeople_WithCsv_CommitsInBatchesAndReportsInvalidRows() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        var csv = """
+                first_name,last_name,address,gender
+                Ayrton,Senna,São Paulo,Male
+                Way too long first name,Doe,Nowhere,Male
+                Alan,Turing,London,Male
+                Ada,Lovelace,London,Female
+                """;
+
+        var result = service.importPeople(MediaType.TEXT_CSV, body(csv));
+
+        assertEquals(4, result.getProcessed());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().getFirst().getLine());
+        verify(repository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        verify(countCache).invalidate("person");
+    }
+
+    @Test
+    void importPeople_WithNdjson_ReportsMalformedLines() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        var ndjson = """
+                {"firstName":"Ayrton","lastName":"Senna","address":"São Paulo","gender":"Male","enabled":false}
+                {"firstName":
+                """;
+
+        var result = service.importPeople(MediaType.APPLICATION_NDJSON, body(ndjson));
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getErrors().getFirst().getLine());
+        verify(autocompleteService).indexPerson(any(Person.class));
+    }
+
+    @Test
+    void importPeople_WithOversizedOrUnterminatedRows_ReportsRowErrors() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        var ndjson = "{\"firstName\":\"" + "x".repeat(500) + "\"}\n"
+                + "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"address\":\"London\",\"gender\":\"Female\"}\n";
+        var csv = "first_name,last_name,address,gender\nAda,Lovelace,London,Female\n\"Alan,Turing,London,Male\n";
+
+        var ndjsonResult = service.importPeople(MediaType.APPLICATION_NDJSON, body(ndjson));
+        var csvResult = service.importPeople(MediaType.TEXT_CSV, body(csv));
+
+        assertEquals(1, ndjsonResult.getImported());
+        assertEquals(1, ndjsonResult.getErrors().getFirst().getLine());
+        assertEquals(1, csvResult.getImported());
+        assertEquals(1, csvResult.getFailed());
+        assertEquals(3, csvResult.getErrors().getFirst().getLine());
+    }
+
+    @Test
+    void importPeople_WithUnknownFormat_ThrowsInvalidImportFileException() {
+        assertThrows(InvalidImportFileException.class, () -> service.importPeople("application/vnd.ms-excel", body("")));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void importPeople_WithMissingColumn_ThrowsInvalidImportFileException() {
+        var exception = assertThrows(InvalidImportFileException.class,
+                () -> service.importPeople(MediaType.TEXT_CSV, body("first_name,last_name\nAda,Lovelace\n")));
+
+        assertTrue(exception.getMessage().contains("address"));
+        verifyNoInteractions(repository);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,24 +1,48 @@
 package io.github.vinifillos.unitTests.services;
 
+import io.github.vinifillos.exceptions.PayloadTooLargeException;
+import io.github.vinifillos.exceptions.PreconditionFailedException;
 import io.github.vinifillos.exceptions.RequiredObjectIsNullException;
 import io.github.vinifillos.model.Person;
 import io.github.vinifillos.model.dto.PersonDto;
 import io.github.vinifillos.repositories.PersonRepository;
+import io.github.vinifillos.services.AutocompleteService;
+import io.github.vinifillos.services.BatchWriter;
+import io.github.vinifillos.services.CountCache;
+import io.github.vinifillos.services.DtoCache;
+import io.github.vinifillos.services.ExportService;
+import io.github.vinifillos.services.ResponseEncoder;
 import io.github.vinifillos.services.PersonService;
 import io.github.vinifillos.mocks.MockPerson;
+import io.github.vinifillos.util.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)
@@ -33,6 +57,24 @@ class PersonServiceTest {
     @Mock
     PersonRepository personRepository;
 
+    @Mock
+    CountCache countCache;
+
+    @Spy
+    DtoCache dtoCache = new DtoCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+
+    @Mock
+    AutocompleteService autocompleteService;
+
+    @Mock
+    BatchWriter batchWriter;
+
+    @Mock
+    ExportService exportService;
+
+    @Mock
+    ResponseEncoder responseEncoder;
+
     @BeforeEach
     void setUp() {
         input = new MockPerson();
@@ -75,6 +117,87 @@ class PersonServiceTest {
         assertEquals("Female", result.getGender());
     }
 
+    @Test
+    void findById_CalledTwice_HitsRepositoryOnce() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+
+        var first = personService.findById(1L);
+        var second = personService.findById(1L);
+
+        assertSame(first, second);
+        verify(personRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findById_AfterDisablePerson_ReloadsPerson() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+
+        personService.findById(1L);
+        person.setEnabled(false);
+        personService.disablePerson(1L);
+        var result = personService.findById(1L);
+
+        assertFalse(result.getEnabled());
+        verify(personRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void findByIdEncoded_CalledTwice_SerializesOnce() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        var encoded = new DtoCache.Encoded(new byte[]{'{', '}'}, MediaType.APPLICATION_XML, "\"etag\"");
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        when(responseEncoder.encode(any(PersonDto.class), eq(MediaType.APPLICATION_XML), any())).thenReturn(encoded);
+
+        var first = personService.findByIdEncoded(1L, MediaType.APPLICATION_XML);
+        var second = personService.findByIdEncoded(1L, MediaType.APPLICATION_XML);
+
+        assertSame(encoded, first);
+        assertSame(encoded, second);
+        verify(responseEncoder, times(1)).encode(any(), any(), any());
+        verify(personRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void disablePerson_WhenCached_UpdatesWithoutSelect() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        person.setEnabled(true);
+        person.setVersion(5L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        personService.findById(1L);
+        when(personRepository.disableIfVersion(1L, 5L)).thenReturn(1);
+
+        var result = personService.disablePerson(1L);
+
+        assertFalse(result.getEnabled());
+        assertEquals(6L, result.getVersion());
+        assertEquals("First Name Test1", result.getFirstName());
+        verify(personRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void disablePeople_RunsOneStatementForDistinctIds() {
+        when(personRepository.disablePeople(Set.of(1L, 2L, 3L))).thenReturn(2);
+
+        var result = personService.disablePeople(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getDisabled());
+    }
+
+    @Test
+    void disablePeople_OverBulkLimit_ThrowsBeforeUpdating() {
+        doThrow(new PayloadTooLargeException("too many")).when(batchWriter).checkLimit(3);
+
+        assertThrows(PayloadTooLargeException.class, () -> personService.disablePeople(List.of(1L, 2L, 3L)));
+        verify(personRepository, never()).disablePeople(any());
+    }
+
     @Test
     void create_WithNullPerson_ReturnException() {
         Exception exception = assertThrows(RequiredObjectIsNullException.class, () -> personService.create(null));
@@ -105,6 +228,39 @@ class PersonServiceTest {
         assertEquals("Female", result.getGender());
     }
 
+    @Test
+    void update_WithStaleIfMatch_ThrowsPreconditionFailed() {
+        PersonDto dto = input.mockDto(1);
+        dto.setKey(1L);
+        when(personRepository.updateIfVersion(eq(1L), eq(2L), anyString(), anyString(), anyString(), anyString())).thenReturn(0);
+        when(personRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> personService.update(dto, "\"2-json\""));
+        verify(personRepository, never()).save(any());
+    }
+
+    @Test
+    void update_WithIfMatchOfCachedVersion_UpdatesWithoutSelect() {
+        Person entity = input.mockEntity(1);
+        entity.setId(1L);
+        entity.setEnabled(false);
+        entity.setVersion(3L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(entity));
+        personService.findById(1L);
+        PersonDto dto = input.mockDto(1);
+        dto.setKey(1L);
+        dto.setFirstName("Changed");
+        when(personRepository.updateIfVersion(1L, 3L, "Changed", "Last Name Test1", "Addres Test1", "Female")).thenReturn(1);
+
+        var result = personService.update(dto, "\"3-json\"");
+
+        assertEquals("Changed", result.getFirstName());
+        assertEquals(4L, result.getVersion());
+        assertFalse(result.getEnabled());
+        verify(personRepository, times(1)).findById(1L);
+        verify(personRepository, never()).save(any());
+    }
+
     @Test
     void update_WithNullPerson_ReturnException() {
         Exception exception = assertThrows(RequiredObjectIsNullException.class, () -> personService.update(null));
@@ -122,4 +278,51 @@ class PersonServiceTest {
 
         assertDoesNotThrow(() -> personService.delete(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByKeyset_WithMoreRows_ReturnsPageWithNextLink() {
+        when(personRepository.findFirstKeysetPageAsc(any(Pageable.class))).thenReturn(input.mockEntityList());
+
+        var result = personService.findAllByKeyset(null, 13, "asc", false);
+
+        assertEquals(13, result.getContent().size());
+        assertNull(result.getTotalElements());
+        assertTrue(result.getLink("next").isPresent());
+        var next = KeysetCursor.decode(result.getLink("next").get().getHref().replaceAll(".*cursor=([^&]*).*", "$1"));
+        assertEquals("First Name Test12", next.key());
+        assertEquals(12L, next.id());
+    }
+
+    @Test
+    void findAllByKeyset_WithLastRows_ReturnsPageWithoutNextLink() {
+        when(personRepository.findKeysetPageAsc(anyString(), anyLong(), any(Pageable.class))).thenReturn(input.mockEntityList());
+        var cursor = new KeysetCursor("First Name Test0", 0L).encode();
+
+        var result = personService.findAllByKeyset(cursor, 14, "asc", false);
+
+        assertEquals(14, result.getContent().size());
+        assertFalse(result.getLink("next").isPresent());
+    }
+
+    @Test
+    void findPeopleByName_WithLongTerm_UsesFullTextSearch() {
+        Pageable pageable = PageRequest.of(0, 12);
+        when(personRepository.searchPeopleByName("\"vini\"", pageable)).thenReturn(new SliceImpl<>(input.mockEntityList(), pageable, false));
+
+        var result = personService.findPeopleByName("vini", pageable, false);
+
+        assertEquals(14, result.getContent().size());
+        verify(personRepository, never()).findPeopleByNameAsSlice(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void findPeopleByName_WithSingleCharacter_FallsBackToLike() {
+        Pageable pageable = PageRequest.of(0, 12);
+        when(personRepository.findPeopleByNameAsSlice("v", pageable)).thenReturn(new SliceImpl<>(input.mockEntityList(), pageable, false));
+
+        var result = personService.findPeopleByName("v", pageable, false);
+
+        assertEquals(14, result.getContent().size());
+        verify(personRepository, never()).searchPeopleByName(anyString(), any(Pageable.class));
+    }
+}
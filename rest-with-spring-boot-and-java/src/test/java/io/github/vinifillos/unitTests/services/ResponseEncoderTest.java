@@ -0,0 +1,28 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.services.ResponseEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseEncoderTest {
+
+    @Test
+    void negotiate_WithoutPreference_ReturnsJson() {
+        assertEquals(MediaType.APPLICATION_JSON, ResponseEncoder.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, ResponseEncoder.negotiate("*/*"));
+    }
+
+    @Test
+    void negotiate_FollowsQualityOrder() {
+        assertEquals(MediaType.APPLICATION_XML, ResponseEncoder.negotiate("application/json;q=0.5, application/xml"));
+        assertEquals(MediaType.valueOf("application/x-yaml"), ResponseEncoder.negotiate("application/x-yaml"));
+    }
+
+    @Test
+    void negotiate_WithUnsupportedType_ReturnsNull() {
+        assertNull(ResponseEncoder.negotiate("text/csv"));
+        assertNull(ResponseEncoder.negotiate("not a media type"));
+    }
+}
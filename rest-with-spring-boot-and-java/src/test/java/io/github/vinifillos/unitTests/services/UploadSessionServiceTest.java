@@ -0,0 +1,159 @@
+package io.github.vinifillos.unitTests.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vinifillos.config.FileStorageConfig;
+import io.github.vinifillos.exceptions.ChecksumMismatchException;
+import io.github.vinifillos.exceptions.InvalidUploadChunkException;
+import io.github.vinifillos.exceptions.ResourceNotFoundException;
+import io.github.vinifillos.model.dto.UploadSessionRequestDto;
+import io.github.vinifillos.services.FileStorageService;
+import io.github.vinifillos.services.UploadSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadSessionServiceTest {
+
+    private static final String HELLO_WORLD_SHA256 = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageConfig config;
+    private FileStorageService fileStorageService;
+    private UploadSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new FileStorageConfig();
+        config.setUploadDir(uploadDir.toString());
+        config.setMaxUploadSize(DataSize.ofBytes(100));
+        config.setUploadMinChunkSize(DataSize.ofBytes(2));
+        config.setUploadMaxChunkSize(DataSize.ofBytes(10));
+        fileStorageService = new FileStorageService(config, null);
+        service = newService();
+    }
+
+    @Test
+    void writeChunk_OutOfOrder_CompletesWithWholeFile() throws IOException {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 11L, 4L, HELLO_WORLD_SHA256));
+        assertEquals(3, session.getChunkCount());
+
+        service.writeChunk(session.getId(), 2, content("rld"));
+        var state = service.writeChunk(session.getId(), 0, content("hell"));
+        assertEquals(List.of(1), state.getMissingChunks());
+        service.writeChunk(session.getId(), 1, content("o wo"));
+
+        var stored = service.complete(session.getId());
+
+        assertEquals(new FileStorageService.StoredFile("hello.txt", 11, HELLO_WORLD_SHA256), stored);
+        assertEquals("hello world", Files.readString(uploadDir.resolve("hello.txt")));
+        assertThrows(ResourceNotFoundException.class, () -> service.find(session.getId()));
+    }
+
+    @Test
+    void find_AfterRestart_ResumesSession() throws IOException {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 11L, 4L, null));
+        service.writeChunk(session.getId(), 0, content("hell"));
+
+        var restarted = newService();
+        assertEquals(List.of(1, 2), restarted.find(session.getId()).getMissingChunks());
+        restarted.writeChunk(session.getId(), 1, content("o wo"));
+        restarted.writeChunk(session.getId(), 2, content("rld"));
+        restarted.complete(session.getId());
+
+        assertEquals("hello world", Files.readString(uploadDir.resolve("hello.txt")));
+    }
+
+    @Test
+    void create_WithChunkSizeOutOfBounds_IsRejected() {
+        assertThrows(InvalidUploadChunkException.class, () -> service.create(new UploadSessionRequestDto("hello.txt", 11L, 1L, null)));
+        assertThrows(InvalidUploadChunkException.class, () -> service.create(new UploadSessionRequestDto("hello.txt", 11L, 11L, null)));
+    }
+
+    @Test
+    void writeChunk_WithWrongLength_IsRejected() {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 11L, 4L, null));
+
+        assertThrows(InvalidUploadChunkException.class, () -> service.writeChunk(session.getId(), 0, content("hel")));
+        assertThrows(InvalidUploadChunkException.class, () -> service.writeChunk(session.getId(), 0, content("hello")));
+        assertThrows(InvalidUploadChunkException.class, () -> service.writeChunk(session.getId(), 3, content("x")));
+        assertEquals(List.of(0, 1, 2), service.find(session.getId()).getMissingChunks());
+    }
+
+    @Test
+    void complete_WithMissingChunks_IsRejected() {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 11L, 4L, null));
+        service.writeChunk(session.getId(), 0, content("hell"));
+
+        assertThrows(InvalidUploadChunkException.class, () -> service.complete(session.getId()));
+        assertFalse(Files.exists(uploadDir.resolve("hello.txt")));
+    }
+
+    @Test
+    void complete_WithWrongChecksum_KeepsSession() {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 3L, 4L, "00"));
+        service.writeChunk(session.getId(), 0, content("abc"));
+
+        assertThrows(ChecksumMismatchException.class, () -> service.complete(session.getId()));
+        assertFalse(Files.exists(uploadDir.resolve("hello.txt")));
+        assertEquals(List.of(), service.find(session.getId()).getMissingChunks());
+    }
+
+    @Test
+    void abort_RemovesSession() throws IOException {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 11L, 4L, null));
+
+        service.abort(session.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.find(session.getId()));
+        try (var files = Files.list(uploadDir.resolve(".sessions"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void abort_WhileChunkIsBeingWritten_WaitsForTheWrite() {
+        var session = service.create(new UploadSessionRequestDto("hello.txt", 3L, 4L, null));
+        var abort = new AtomicReference<CompletableFuture<Void>>();
+        var slowContent = new FilterInputStream(content("abc")) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (abort.get() == null) {
+                    abort.set(CompletableFuture.runAsync(() -> service.abort(session.getId())));
+                    assertThrows(TimeoutException.class, () -> abort.get().get(100, TimeUnit.MILLISECONDS));
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        assertEquals(List.of(), service.writeChunk(session.getId(), 0, slowContent).getMissingChunks());
+        abort.get().join();
+
+        assertThrows(ResourceNotFoundException.class, () -> service.find(session.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> service.writeChunk(session.getId(), 0, content("abc")));
+    }
+
+    private UploadSessionService newService() {
+        return new UploadSessionService(fileStorageService, config, new ObjectMapper());
+    }
+
+    private static ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.vinifillos.unitTests.services;
+
+import io.github.vinifillos.model.User;
+import io.github.vinifillos.repositories.UserRepository;
+import io.github.vinifillos.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, 100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadUserByUsername_CalledTwice_HitsRepositoryOnce() {
+        when(userRepository.findByUsername("leandro")).thenReturn(mockUser());
+
+        var first = userService.loadUserByUsername("leandro");
+        var second = userService.loadUserByUsername("leandro");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("leandro");
+    }
+
+    @Test
+    void loadUserByUsername_AfterEvict_ReloadsUser() {
+        when(userRepository.findByUsername("leandro")).thenReturn(mockUser());
+
+        userService.loadUserByUsername("leandro");
+        userService.evict("leandro");
+        userService.loadUserByUsername("leandro");
+
+        verify(userRepository, times(2)).findByUsername("leandro");
+    }
+
+    @Test
+    void loadUserByUsername_WhenEvictedWhileLoading_DoesNotCacheStaleUser() {
+        when(userRepository.findByUsername("leandro")).thenAnswer(invocation -> {
+            userService.evict("leandro");
+            return mockUser();
+        });
+
+        userService.loadUserByUsername("leandro");
+        userService.loadUserByUsername("leandro");
+
+        verify(userRepository, times(2)).findByUsername("leandro");
+    }
+
+    @Test
+    void loadUserByUsername_WithUnknownUser_ThrowsException() {
+        when(userRepository.findByUsername("unknown")).thenReturn(null);
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("unknown"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("unknown"));
+        verify(userRepository, times(2)).findByUsername("unknown");
+    }
+
+    private User mockUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setUserName("leandro");
+        user.setEnabled(true);
+        user.setAccountNonLocked(true);
+        user.setPermissions(new ArrayList<>());
+        return user;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.util.BoundedLineReader;
+import io.github.vinifillos.util.MalformedRecordException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedLineReaderTest {
+
+    @Test
+    void readLine_StripsTerminatorsAndCountsLines() throws IOException {
+        var reader = new BoundedLineReader(new StringReader("one\r\n\ntwo"), 10);
+
+        assertEquals("one", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertEquals("two", reader.readLine());
+        assertEquals(3, reader.getLineNumber());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void readLine_WithLineOverLimit_SkipsItAndContinues() throws IOException {
+        var reader = new BoundedLineReader(new StringReader("short\n" + "x".repeat(50) + "\nnext\n"), 10);
+
+        assertEquals("short", reader.readLine());
+        var exception = assertThrows(MalformedRecordException.class, reader::readLine);
+        assertEquals(2, exception.getLine());
+        assertEquals("next", reader.readLine());
+        assertEquals(3, reader.getLineNumber());
+    }
+}
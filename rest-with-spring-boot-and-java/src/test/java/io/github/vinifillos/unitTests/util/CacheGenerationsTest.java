@@ -0,0 +1,44 @@
+package io.github.vinifillos.unitTests.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vinifillos.util.CacheGenerations;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheGenerationsTest {
+
+    private final Cache<String, String> cache = Caffeine.newBuilder().build();
+    private final CacheGenerations generations = new CacheGenerations();
+
+    @Test
+    void putIfCurrent_WithoutInvalidation_StoresValue() {
+        long generation = generations.current("person:1");
+
+        generations.putIfCurrent(cache, "person:1", "loaded", generation);
+
+        assertEquals("loaded", cache.getIfPresent("person:1"));
+    }
+
+    @Test
+    void putIfCurrent_AfterInvalidationDuringLoad_DropsValue() {
+        long generation = generations.current("person:1");
+        generations.invalidate("person:1");
+        cache.invalidate("person:1");
+
+        generations.putIfCurrent(cache, "person:1", "stale", generation);
+
+        assertNull(cache.getIfPresent("person:1"));
+    }
+
+    @Test
+    void putIfCurrent_AfterInvalidateAll_DropsValue() {
+        long generation = generations.current("person:1");
+        generations.invalidateAll();
+
+        generations.putIfCurrent(cache, "person:1", "stale", generation);
+
+        assertNull(cache.getIfPresent("person:1"));
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.util.CsvReader;
+import io.github.vinifillos.util.MalformedRecordException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_SplitsFieldsAndTracksLines() throws IOException {
+        var csv = new CsvReader(new StringReader("a,b,c\r\n\n1,,3\n"));
+
+        assertEquals(List.of("a", "b", "c"), csv.readRecord());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(List.of("1", "", "3"), csv.readRecord());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void readRecord_WithQuotedFields_KeepsSeparatorsQuotesAndLineBreaks() throws IOException {
+        var csv = new CsvReader(new StringReader("\"Rua A, 10\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext,row,here"));
+
+        assertEquals(List.of("Rua A, 10", "say \"hi\"", "two\nlines"), csv.readRecord());
+        assertEquals(List.of("next", "row", "here"), csv.readRecord());
+        assertEquals(3, csv.getRecordLine());
+    }
+
+    @Test
+    void readRecord_WithUnterminatedQuote_ThrowsIOException() {
+        var csv = new CsvReader(new StringReader("\"open,field"));
+
+        assertThrows(IOException.class, csv::readRecord);
+    }
+
+    @Test
+    void readRecord_WithRecordOverLimit_SkipsItAndContinuesOnNextLine() throws IOException {
+        var csv = new CsvReader(new StringReader("ok,1\n\"never closed,aaaaaaaaaaaaaaaa\nok,2\n"), 10);
+
+        assertEquals(List.of("ok", "1"), csv.readRecord());
+        var exception = assertThrows(MalformedRecordException.class, csv::readRecord);
+        assertEquals(2, exception.getLine());
+        assertEquals(List.of("ok", "2"), csv.readRecord());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.model.dto.PersonDto;
+import io.github.vinifillos.util.ETags;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void of_CombinesVersionAndMediaType() {
+        assertEquals("\"3-json\"", ETags.of(person(1L, 3L), MediaType.APPLICATION_JSON));
+        assertEquals("\"3-x-yaml\"", ETags.of(person(1L, 3L), MediaType.valueOf("application/x-yaml")));
+    }
+
+    @Test
+    void ofPage_ChangesWithAnyItemVersion() {
+        var page = ETags.ofPage(List.of(person(1L, 1L), person(2L, 1L)), MediaType.APPLICATION_JSON, 2L);
+
+        assertEquals(page, ETags.ofPage(List.of(person(1L, 1L), person(2L, 1L)), MediaType.APPLICATION_JSON, 2L));
+        assertNotEquals(page, ETags.ofPage(List.of(person(1L, 1L), person(2L, 2L)), MediaType.APPLICATION_JSON, 2L));
+        assertNotEquals(page, ETags.ofPage(List.of(person(1L, 1L), person(2L, 1L)), MediaType.APPLICATION_XML, 2L));
+        assertNotEquals(page, ETags.ofPage(List.of(person(1L, 1L), person(2L, 1L)), MediaType.APPLICATION_JSON, 3L));
+    }
+
+    @Test
+    void matches_ComparesVersionOfStrongTags() {
+        assertTrue(ETags.matches(null, 3L));
+        assertTrue(ETags.matches("*", 3L));
+        assertTrue(ETags.matches("\"3-xml\"", 3L));
+        assertTrue(ETags.matches("\"2-json\", \"3-json\"", 3L));
+        assertFalse(ETags.matches("\"2-json\"", 3L));
+        assertFalse(ETags.matches("W/\"3-json\"", 3L));
+    }
+
+    @Test
+    void version_ReadsSingleStrongTag() {
+        assertEquals(3L, ETags.version("\"3-json\""));
+        assertEquals(12L, ETags.version(" \"12-x-yaml\" "));
+        assertNull(ETags.version(null));
+        assertNull(ETags.version("*"));
+        assertNull(ETags.version("W/\"3-json\""));
+        assertNull(ETags.version("\"2-json\", \"3-json\""));
+        assertNull(ETags.version("\"abc\""));
+    }
+
+    private static PersonDto person(Long key, Long version) {
+        var person = new PersonDto();
+        person.setKey(key);
+        person.setVersion(version);
+        return person;
+    }
+}
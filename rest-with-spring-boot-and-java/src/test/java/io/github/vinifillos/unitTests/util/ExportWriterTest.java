@@ -0,0 +1,65 @@
+package io.github.vinifillos.unitTests.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vinifillos.util.ExportFormat;
+import io.github.vinifillos.util.ExportWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    private static final List<ExportWriter.Column<Map<String, Object>>> COLUMNS = List.of(
+            new ExportWriter.Column<>("id", row -> row.get("id")),
+            new ExportWriter.Column<>("name", row -> row.get("name")));
+
+    @Test
+    void csv_WritesHeaderAndQuotesWhenNeeded() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        try (var writer = ExportWriter.csv(out, COLUMNS)) {
+            writer.write(Map.of("id", 1L, "name", "Senna"));
+            writer.write(Map.of("id", 2L, "name", "Turing, \"Alan\""));
+        }
+
+        assertEquals("id,name\r\n1,Senna\r\n2,\"Turing, \"\"Alan\"\"\"\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jackson_WithNdjson_WritesOneObjectPerLine() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        try (var writer = ExportWriter.jackson(new ObjectMapper().createGenerator(out), ExportFormat.NDJSON, COLUMNS, "people", "person")) {
+            writer.write(Map.of("id", 1L, "name", "Senna"));
+            writer.write(Map.of("id", 2L, "name", "Turing"));
+        }
+
+        assertEquals("{\"id\":1,\"name\":\"Senna\"}\n{\"id\":2,\"name\":\"Turing\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jackson_WithJson_WritesArray() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        try (var writer = ExportWriter.jackson(new ObjectMapper().createGenerator(out), ExportFormat.JSON, COLUMNS, "people", "person")) {
+            writer.write(Map.of("id", 1L, "name", "Senna"));
+        }
+
+        assertEquals("[{\"id\":1,\"name\":\"Senna\"}]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void negotiate_PicksPreferredSupportedFormat() {
+        assertEquals(ExportFormat.JSON, ExportFormat.negotiate(null));
+        assertEquals(ExportFormat.JSON, ExportFormat.negotiate("*/*"));
+        assertEquals(ExportFormat.CSV, ExportFormat.negotiate("text/csv, application/json;q=0.5"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.negotiate("application/x-ndjson"));
+        assertNull(ExportFormat.negotiate("image/png"));
+    }
+}
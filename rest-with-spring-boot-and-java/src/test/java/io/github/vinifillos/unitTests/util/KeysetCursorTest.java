@@ -0,0 +1,24 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.exceptions.InvalidCursorException;
+import io.github.vinifillos.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_EncodedCursor_ReturnsSamePosition() {
+        var cursor = new KeysetCursor("Ana|Maria", 42L);
+
+        var decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decode_WithGarbage_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.controllers.BookController;
+import io.github.vinifillos.controllers.PersonController;
+import io.github.vinifillos.util.LinkTemplate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplateTest {
+
+    @Test
+    void selfRel_MatchesLinkToMethodOn() {
+        var personLinks = LinkTemplate.forController(PersonController.class);
+        var bookLinks = LinkTemplate.forController(BookController.class);
+
+        var expectedPerson = linkTo(methodOn(PersonController.class).findById(7L, null)).withSelfRel();
+        var expectedBook = linkTo(methodOn(BookController.class).findById(12L, null)).withSelfRel();
+
+        assertEquals(expectedPerson.getHref(), personLinks.selfRel(7L).getHref());
+        assertEquals(expectedPerson.getRel(), personLinks.selfRel(7L).getRel());
+        assertEquals(expectedBook.getHref(), bookLinks.selfRel(12L).getHref());
+        assertEquals(expectedBook.getRel(), bookLinks.selfRel(12L).getRel());
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.vinifillos.unitTests.util;
+
+import io.github.vinifillos.model.dto.SuggestionDto;
+import io.github.vinifillos.util.PrefixIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.put(1L, "Ayrton Senna", "Ayrton", "Senna");
+        index.put(2L, "Alan Turing", "Alan", "Turing");
+        index.put(3L, "Ana Sénna", "Ana", "Sénna");
+    }
+
+    @Test
+    void search_MatchesAnyTermIgnoringCaseAndAccents() {
+        var result = index.search("SEN", 10);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(new SuggestionDto(1L, "Ayrton Senna")));
+        assertTrue(result.contains(new SuggestionDto(3L, "Ana Sénna")));
+    }
+
+    @Test
+    void search_ReturnsAtMostLimit() {
+        assertEquals(2, index.search("a", 2).size());
+    }
+
+    @Test
+    void search_ReturnsEachIdOnce() {
+        index.put(4L, "Anna Anders", "Anna", "Anders");
+
+        var result = index.search("an", 10);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.stream().filter(s -> s.getId().equals(4L)).count());
+    }
+
+    @Test
+    void put_ReplacesPreviousTerms() {
+        index.put(2L, "Grace Hopper", "Grace", "Hopper");
+
+        assertTrue(index.search("turing", 10).isEmpty());
+        assertEquals(new SuggestionDto(2L, "Grace Hopper"), index.search("hop", 10).getFirst());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_DropsAllTermsOfId() {
+        index.remove(1L);
+
+        assertTrue(index.search("ayr", 10).isEmpty());
+        assertEquals(1, index.search("senna", 10).size());
+    }
+
+    @Test
+    void search_WithBlankPrefix_ReturnsEmpty() {
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+}